@@ -0,0 +1,92 @@
+// Teste de carga k6 para comparar threads de plataforma e threads virtuais.
+// Uso: k6 run -e BASE_URL=http://localhost:8080 -e MODE=platform load-test/auth-load.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const EMAIL = __ENV.EMAIL || 'admin@admin.com';
+const PASSWORD = __ENV.PASSWORD || 'segredo123';
+const RATE = parseInt(__ENV.RATE || '200');
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    scenarios: {
+        login: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: Math.max(1, Math.floor(RATE / 10)),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+        },
+        me: {
+            executor: 'constant-arrival-rate',
+            exec: 'me',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 100,
+            maxVUs: 1000,
+        },
+    },
+    // Thresholds triviais: servem apenas para o k6 calcular as submétricas por cenário no resumo
+    thresholds: {
+        'http_req_duration{scenario:login}': ['p(99)>=0'],
+        'http_req_duration{scenario:me}': ['p(99)>=0'],
+    },
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+function authenticate() {
+    const res = http.post(`${BASE_URL}/api/auth/login`, JSON.stringify({ email: EMAIL, password: PASSWORD }), {
+        headers: JSON_HEADERS,
+    });
+    return res.json('token');
+}
+
+export function setup() {
+    return { token: authenticate() };
+}
+
+export function login() {
+    const res = http.post(`${BASE_URL}/api/auth/login`, JSON.stringify({ email: EMAIL, password: PASSWORD }), {
+        headers: JSON_HEADERS,
+        tags: { endpoint: 'login' },
+    });
+    check(res, { 'login 200 ou 503': (r) => r.status === 200 || r.status === 503 });
+}
+
+export function me(data) {
+    const res = http.get(`${BASE_URL}/api/users/me`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+        tags: { endpoint: 'me' },
+    });
+    check(res, { 'me 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const mode = __ENV.MODE || 'unknown';
+    return {
+        stdout: JSON.stringify(summarize(data), null, 2) + '\n',
+        [`load-test/results/${mode}.json`]: JSON.stringify(summarize(data), null, 2),
+    };
+}
+
+function summarize(data) {
+    const pick = (name) => {
+        const metric = data.metrics[name];
+        return metric ? metric.values : null;
+    };
+    return {
+        mode: __ENV.MODE || 'unknown',
+        rate: RATE,
+        duration: DURATION,
+        requests: pick('http_reqs'),
+        login: pick('http_req_duration{scenario:login}'),
+        me: pick('http_req_duration{scenario:me}'),
+        failed: pick('http_req_failed'),
+    };
+}
@@ -0,0 +1,71 @@
+package com.auth.benchmark;
+
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.security.RoleAuthorities;
+import com.auth.security.VerifiedToken;
+import com.auth.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Custo de montar as authorities de um usuário autenticado, chamado várias vezes por requisição
+ * (filtro JWT e avaliação de {@code @PreAuthorize}).
+ * <p>
+ * {@code legacy*} reproduz o caminho anterior: stream sobre as roles, concatenação de "ROLE_" e um
+ * {@link SimpleGrantedAuthority} novo por role a cada chamada. {@code interned*} é o caminho atual,
+ * com as listas canônicas de {@code RoleAuthorities}. O esperado para o caminho atual é 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorityBenchmark {
+
+    private static final String SECRET = "123456789012345678901234567890123456789012345678901234567890";
+
+    private User user;
+    private VerifiedToken verifiedToken;
+
+    @Setup
+    public void setUp() {
+        user = new User("user@example.com", "password", "Bench", "User");
+        user.setId(1L);
+        user.addRole(new Role(Role.RoleName.DEFAULT));
+        user.addRole(new Role(Role.RoleName.ADMIN));
+        JwtService jwtService = new JwtService(SECRET, 3_600_000L);
+        verifiedToken = jwtService.verify(jwtService.generateToken(user));
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> legacyUserAuthorities() {
+        return user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().name()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> internedUserAuthorities() {
+        return user.getAuthorities();
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> legacyTokenAuthorities() {
+        return verifiedToken.roles().stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> internedTokenAuthorities() {
+        return RoleAuthorities.forRoleNames(verifiedToken.roles());
+    }
+}
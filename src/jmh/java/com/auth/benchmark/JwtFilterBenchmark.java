@@ -0,0 +1,86 @@
+package com.auth.benchmark;
+
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.security.JwtAuthenticationFilter;
+import com.auth.security.VerifiedTokenCache;
+import com.auth.service.JwtService;
+import com.auth.service.TokenRevocationService;
+import com.auth.service.UserDetailsCache;
+import com.auth.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho completo do {@link JwtAuthenticationFilter} para uma requisição autenticada: leitura do
+ * header, verificação do token (com ou sem o {@link VerifiedTokenCache}), checagem de revogação,
+ * montagem do principal e do {@code Authentication} no SecurityContext.
+ * <p>
+ * {@code stateless=false} carrega o usuário pelo {@link UserService} com o {@link UserDetailsCache}
+ * aquecido (o caso comum em produção); nenhum cenário acessa o banco.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "123456789012345678901234567890123456789012345678901234567890";
+    private static final long EXPIRATION = 3_600_000L;
+
+    @Param({"true", "false"})
+    public boolean tokenCache;
+
+    @Param({"true", "false"})
+    public boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtService jwtService = new JwtService(SECRET, EXPIRATION);
+        User user = new User("user@example.com", "password", "Bench", "User");
+        user.setId(1L);
+        user.addRole(new Role(Role.RoleName.DEFAULT));
+        user.addRole(new Role(Role.RoleName.ADMIN));
+
+        UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofHours(1));
+        userDetailsCache.get(user.getEmail(), email -> user);
+        UserService userService = new UserService(null, null, userDetailsCache, null, null, null, meterRegistry);
+        // Snapshot de revogações vazio: o caminho comum de um token não revogado
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(null, null, null, null, null, EXPIRATION, stateless);
+
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtService, tokenCache, 10_000),
+                userService, tokenRevocationService, stateless, meterRegistry);
+        request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,56 @@
+package com.auth.benchmark;
+
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.security.JwtSigningKeys;
+import com.auth.security.VerifiedToken;
+import com.auth.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de assinatura (login, refresh) e de verificação (cada requisição autenticada, aqui e nos
+ * serviços que validam via JWKS) por algoritmo. HMAC usa o segredo padrão de 60 bytes (HS384).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET = "123456789012345678901234567890123456789012345678901234567890";
+    private static final long EXPIRATION = 3_600_000L;
+
+    @Param({"HMAC", "RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtSigningKeys signingKeys = JwtSigningKeys.isAsymmetric(algorithm)
+                ? JwtSigningKeys.asymmetric(algorithm, JwtSigningKeys.generateKeyPair(algorithm), List.of())
+                : JwtSigningKeys.hmac(SECRET);
+        jwtService = new JwtService(signingKeys, EXPIRATION);
+        user = new User("user@example.com", "password", "Bench", "User");
+        user.setId(1L);
+        user.addRole(new Role(Role.RoleName.DEFAULT));
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+}
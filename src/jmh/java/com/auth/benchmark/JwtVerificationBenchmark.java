@@ -0,0 +1,69 @@
+package com.auth.benchmark;
+
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.security.VerifiedToken;
+import com.auth.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de verificação de um JWT por requisição filtrada.
+ * <p>
+ * {@code legacyPerRequest} reproduz o caminho anterior do filtro: três parses completos
+ * (extractUsername, validateToken e extractExpiration), cada um derivando a chave e
+ * construindo um novo parser. {@code verifyOnce} é o caminho atual.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "123456789012345678901234567890123456789012345678901234567890";
+    private static final long EXPIRATION = 3_600_000L;
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, EXPIRATION);
+        user = new User("user@example.com", "password", "Bench", "User");
+        user.setId(1L);
+        user.addRole(new Role(Role.RoleName.DEFAULT));
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public void legacyPerRequest(Blackhole blackhole) {
+        String username = legacyParse(token).getSubject();
+        boolean valid = legacyParse(token).getSubject().equals(user.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+        blackhole.consume(username);
+        blackhole.consume(valid);
+    }
+
+    @Benchmark
+    public boolean verifyOnce() {
+        VerifiedToken verifiedToken = jwtService.verify(token);
+        return verifiedToken.belongsTo(user);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,61 @@
+package com.auth.benchmark;
+
+import com.auth.dto.AuthDTO;
+import com.auth.dto.UserDTO;
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.mapper.AuthMapper;
+import com.auth.mapper.UserMapper;
+import com.auth.repository.projection.UserRoleRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões MapStruct das respostas mais frequentes: {@code AuthMapper.toAuthDTO} (login, registro e
+ * refresh), {@code UserMapper.toDto} (alteração de roles) e o agrupamento das projeções
+ * {@code UserMapper.fromRoleRows} (leituras de usuário).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private User user;
+    private LocalDateTime expiresAt;
+    private List<UserRoleRow> roleRows;
+
+    @Setup
+    public void setUp() {
+        user = new User("user@example.com", "password", "Bench", "User");
+        user.setId(1L);
+        user.addRole(new Role(Role.RoleName.DEFAULT));
+        user.addRole(new Role(Role.RoleName.ADMIN));
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        expiresAt = LocalDateTime.now().plusHours(1);
+        roleRows = List.of(
+                new UserRoleRow(1L, user.getEmail(), "Bench", "User", user.getCreatedAt(), user.getUpdatedAt(), Role.RoleName.ADMIN),
+                new UserRoleRow(1L, user.getEmail(), "Bench", "User", user.getCreatedAt(), user.getUpdatedAt(), Role.RoleName.DEFAULT));
+    }
+
+    @Benchmark
+    public AuthDTO toAuthDTO() {
+        return AuthMapper.INSTANCE.toAuthDTO(user, "token", expiresAt, "refresh-token");
+    }
+
+    @Benchmark
+    public UserDTO toDto() {
+        return UserMapper.INSTANCE.toDto(user);
+    }
+
+    @Benchmark
+    public List<UserDTO> fromRoleRows() {
+        return UserMapper.INSTANCE.fromRoleRows(roleRows);
+    }
+}
@@ -0,0 +1,68 @@
+package com.auth.benchmark;
+
+import com.auth.security.RateLimitFilter;
+import com.auth.security.VerifiedTokenCache;
+import com.auth.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@link RateLimitFilter} para uma requisição admitida, o caso comum: {@code auth} usa o IP
+ * como chave; {@code users} procura antes o token no {@link VerifiedTokenCache} (SHA-256 do token)
+ * para usar o subject, que o filtro JWT depois reaproveita sem calcular o hash de novo. A taxa (um token por ns) é alta o bastante para que nenhuma requisição seja recusada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+    private static final String SECRET = "123456789012345678901234567890123456789012345678901234567890";
+
+    private RateLimitFilter filter;
+    private MockHttpServletRequest authRequest;
+    private MockHttpServletRequest usersRequest;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(SECRET, 3_600_000L);
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtService, true, 10_000);
+        String token = jwtService.generateToken(User.withUsername("user@example.com").password("x").roles("DEFAULT").build());
+        verifiedTokenCache.verify(token);
+
+        filter = new RateLimitFilter(true, 1_000_000, Duration.ofMillis(1), 1_000_000,
+                Duration.ofMillis(1), 100_000, verifiedTokenCache, new ObjectMapper(), new SimpleMeterRegistry());
+        authRequest = new MockHttpServletRequest("POST", "/api/auth/login");
+        authRequest.setRemoteAddr("203.0.113.10");
+        usersRequest = new MockHttpServletRequest("GET", "/api/users/me");
+        usersRequest.setRemoteAddr("203.0.113.10");
+        usersRequest.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public int auth() throws Exception {
+        filter.doFilter(authRequest, response, chain);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int users() throws Exception {
+        usersRequest.removeAttribute(VerifiedTokenCache.REQUEST_ATTRIBUTE);
+        filter.doFilter(usersRequest, response, chain);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,110 @@
+package com.auth.benchmark;
+
+import com.auth.AuthServiceApplication;
+import com.auth.dto.UserDTO;
+import com.auth.dto.UserPageDTO;
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.mapper.UserMapper;
+import com.auth.repository.RoleRepository;
+import com.auth.repository.UserRepository;
+import com.auth.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras de usuário (GET /api/users/{id} e uma página de GET /api/users) por entidade gerenciada
+ * versus projeção em records, contra H2 em memória com o perfil de teste.
+ * <p>
+ * {@code entity*} reproduz o caminho anterior: transação somente leitura, JOIN FETCH carregando
+ * {@code User} (incluindo o hash da senha) e o {@code Set<Role>} no contexto de persistência, e
+ * cópia pelo MapStruct. {@code projection*} é o caminho atual do {@link UserService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserReadBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int PAGE_SIZE = 50;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private long userId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        Role defaultRole = roleRepository.save(new Role(Role.RoleName.DEFAULT));
+        Role adminRole = roleRepository.save(new Role(Role.RoleName.ADMIN));
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("user" + i + "@example.com", "$2a$10$" + "x".repeat(53), "Bench", "User " + i);
+            user.addRole(defaultRole);
+            if (i % 2 == 0) {
+                user.addRole(adminRole);
+            }
+            users.add(user);
+        }
+        userId = userRepository.saveAll(users).get(USERS / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO entityById() {
+        return readOnlyTransaction.execute(status ->
+                UserMapper.INSTANCE.toDto(userRepository.findByIdWithRoles(userId).orElseThrow()));
+    }
+
+    @Benchmark
+    public UserDTO projectionById() {
+        return userService.getUserById(userId);
+    }
+
+    @Benchmark
+    public List<UserDTO> entityPage() {
+        return readOnlyTransaction.execute(status -> {
+            List<Long> ids = userRepository.findIdsAfter(0L, Limit.of(PAGE_SIZE + 1));
+            return entityManager.createQuery(
+                            "SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids ORDER BY u.id", User.class)
+                    .setParameter("ids", ids.subList(0, PAGE_SIZE))
+                    .getResultList().stream()
+                    .map(UserMapper.INSTANCE::toDto)
+                    .toList();
+        });
+    }
+
+    @Benchmark
+    public UserPageDTO projectionPage() {
+        return userService.getUsers(null, PAGE_SIZE);
+    }
+}
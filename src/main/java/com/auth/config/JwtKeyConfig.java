@@ -0,0 +1,67 @@
+package com.auth.config;
+
+import com.auth.security.JwtSigningKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.List;
+
+@Configuration
+public class JwtKeyConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyConfig.class);
+    
+    private final ResourceLoader resourceLoader;
+    
+    public JwtKeyConfig(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+    
+    @Bean
+    public JwtSigningKeys jwtSigningKeys(@Value("${app.jwt.algorithm:HMAC}") String algorithm,
+                                         @Value("${app.jwt.secret}") String secret,
+                                         @Value("${app.jwt.signing.private-key:}") String privateKeyLocation,
+                                         @Value("${app.jwt.signing.public-key:}") String publicKeyLocation,
+                                         @Value("${app.jwt.signing.additional-public-keys:}") List<String> additionalPublicKeyLocations) {
+        if (!JwtSigningKeys.isAsymmetric(algorithm)) {
+            return JwtSigningKeys.hmac(secret);
+        }
+        
+        KeyPair activeKeyPair;
+        if (privateKeyLocation.isBlank() || publicKeyLocation.isBlank()) {
+            log.warn("No signing key configured for {}; generated an ephemeral key pair. Tokens will not survive a restart " +
+                    "and are not shared between instances", algorithm);
+            activeKeyPair = JwtSigningKeys.generateKeyPair(algorithm);
+        } else {
+            activeKeyPair = new KeyPair(
+                    JwtSigningKeys.parsePublicKey(algorithm, read(publicKeyLocation)),
+                    JwtSigningKeys.parsePrivateKey(algorithm, read(privateKeyLocation)));
+        }
+        List<PublicKey> additionalPublicKeys = additionalPublicKeyLocations.stream()
+                .filter(location -> !location.isBlank())
+                .map(location -> JwtSigningKeys.parsePublicKey(algorithm, read(location.trim())))
+                .toList();
+        
+        JwtSigningKeys signingKeys = JwtSigningKeys.asymmetric(algorithm, activeKeyPair, additionalPublicKeys);
+        log.info("JWT signing with {} (active kid {}, {} additional verification keys)",
+                signingKeys.getAlgorithm(), signingKeys.getActiveKeyId(), additionalPublicKeys.size());
+        return signingKeys;
+    }
+    
+    private String read(String location) {
+        try {
+            return resourceLoader.getResource(location).getContentAsString(StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler a chave em " + location, e);
+        }
+    }
+}
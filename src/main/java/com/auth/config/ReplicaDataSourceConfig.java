@@ -0,0 +1,80 @@
+package com.auth.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de leitura: com {@code app.datasource.replicas.enabled=true} o DataSource da aplicação passa a
+ * ser um {@link LazyConnectionDataSourceProxy} sobre o {@link ReplicaRoutingDataSource}. Transações
+ * {@code readOnly} leem das réplicas; escritas, Flyway e consultas fora de transação usam o primário,
+ * configurado como antes em {@code spring.datasource.*}. Desabilitado, vale o DataSource padrão do Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Pools de réplica não falham a subida e esperam pouco por conexão: réplica fora do ar vira leitura
+    // no primário, e não erro ou requisição presa
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            @Value("${app.datasource.replicas.urls}") List<String> urls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username}}") String username,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password}}") String password,
+            @Value("${app.datasource.replicas.max-pool-size:10}") int maxPoolSize,
+            @Value("${app.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${app.datasource.replicas.max-lag:5s}") Duration maxLag,
+            MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("auth-replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(maxPoolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("app.datasource.replicas.urls deve ter ao menos uma URL quando as réplicas estão habilitadas");
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, connectionTimeout, meterRegistry);
+    }
+
+    // A transação marca readOnly antes da primeira instrução, mas o Hibernate pede a conexão já no begin:
+    // o proxy só obtém a conexão física (e decide primário ou réplica) quando ela é realmente usada
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,239 @@
+package com.auth.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Roteia as conexões de transações {@code readOnly} para as réplicas e todas as demais para o primário.
+ * <p>
+ * A decisão usa {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()}, que só é
+ * conhecido depois que a transação começou; por isso este DataSource fica atrás de um
+ * {@code LazyConnectionDataSourceProxy}, que adia a obtenção da conexão física até a primeira instrução.
+ * <p>
+ * {@link #checkReplicas()} mede periodicamente o atraso de replicação de cada réplica; apenas as que
+ * respondem com atraso até {@code max-lag} recebem leituras, em rodízio. Sem réplica elegível, com falha
+ * ao obter a conexão da réplica ou com a thread fixada no primário ({@link #usePrimary}) a leitura vai para
+ * o primário.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Réplica sem WAL pendente de aplicação está em dia, mesmo que o primário esteja ocioso há tempo
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    /**
+     * Atraso de replicação de uma réplica; {@code null} quando não pode ser determinado.
+     */
+    @FunctionalInterface
+    interface LagProbe {
+        Duration lag(DataSource replica) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // Em segundos; NaN enquanto a réplica não responde
+        private volatile double lagSeconds = Double.NaN;
+        // Resultado da última verificação; null antes da primeira
+        private volatile Boolean healthy;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagNanos;
+    private final LagProbe lagProbe;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Replica[] available = new Replica[0];
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, ? extends DataSource> replicas, Duration maxLag,
+                                    Duration probeTimeout, MeterRegistry meterRegistry) {
+        this(primary, replicas, maxLag, sqlLagProbe(probeTimeout), meterRegistry);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, Map<String, ? extends DataSource> replicas, Duration maxLag,
+                             LagProbe lagProbe, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLagNanos = maxLag.toNanos();
+        this.lagProbe = lagProbe;
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.primaryReads = readCounter(meterRegistry, "primary");
+        for (Replica replica : this.replicas) {
+            TimeGauge.builder("auth.datasource.replica.lag", replica, TimeUnit.SECONDS, r -> r.lagSeconds)
+                    .tag("replica", replica.name)
+                    .description("Atraso de replicação medido na última verificação")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("auth.datasource.replicas.available", this, dataSource -> dataSource.available.length)
+                .description("Réplicas elegíveis para leitura")
+                .register(meterRegistry);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("auth.datasource.read_connections")
+                .tag("target", target)
+                .description("Conexões obtidas por transações readOnly, por destino")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa {@code action} com as leituras desta thread fixadas no primário (read-your-writes). Só tem
+     * efeito sobre conexões obtidas dentro de {@code action}.
+     */
+    public static <T> T usePrimary(Supplier<T> action) {
+        if (isPrimaryPinned()) {
+            return action.get();
+        }
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_PINNED.remove();
+        }
+    }
+
+    public static boolean isPrimaryPinned() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        Replica[] candidates = available;
+        if (isPrimaryPinned() || candidates.length == 0) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        Replica replica = candidates[Math.floorMod(next.getAndIncrement(), candidates.length)];
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            // Fora do rodízio até a próxima verificação considerá-la saudável de novo
+            markUnavailable(replica);
+            logger.warn("Replica {} unavailable, reading from primary: {}", replica.name, e.getMessage());
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    // Credenciais explícitas não combinam com os pools das réplicas: vão sempre para o primário
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:5s}")
+    public void checkReplicas() {
+        List<Replica> eligible = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            Duration lag = measure(replica);
+            replica.lagSeconds = lag == null ? Double.NaN : lag.toNanos() / 1e9;
+            boolean healthy = lag != null && lag.toNanos() <= maxLagNanos;
+            if (healthy) {
+                eligible.add(replica);
+            }
+            Boolean previous = replica.healthy;
+            replica.healthy = healthy;
+            if (previous == null || previous != healthy) {
+                if (healthy) {
+                    logger.info("Replica {} added to rotation (lag {})", replica.name, lag);
+                } else {
+                    logger.warn("Replica {} removed from rotation (lag {})", replica.name, lag == null ? "unknown" : lag);
+                }
+            }
+        }
+        synchronized (this) {
+            available = eligible.toArray(new Replica[0]);
+        }
+    }
+
+    int availableCount() {
+        return available.length;
+    }
+
+    // Fecha os pools das réplicas; o do primário tem ciclo de vida próprio
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Duration measure(Replica replica) {
+        try {
+            return lagProbe.lag(replica.dataSource);
+        } catch (SQLException | RuntimeException e) {
+            logger.debug("Replica {} health check failed: {}", replica.name, e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void markUnavailable(Replica replica) {
+        replica.healthy = false;
+        List<Replica> remaining = new ArrayList<>(available.length);
+        for (Replica candidate : available) {
+            if (candidate != replica) {
+                remaining.add(candidate);
+            }
+        }
+        available = remaining.toArray(new Replica[0]);
+    }
+
+    private static LagProbe sqlLagProbe(Duration timeout) {
+        int timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        return replica -> {
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeoutSeconds);
+                try (ResultSet result = statement.executeQuery(LAG_QUERY)) {
+                    if (!result.next()) {
+                        return null;
+                    }
+                    double seconds = result.getDouble(1);
+                    // Sem transação replicada ainda: pg_last_xact_replay_timestamp() é NULL
+                    return result.wasNull() ? null : Duration.ofNanos((long) (seconds * 1e9));
+                }
+            }
+        };
+    }
+}
@@ -1,6 +1,10 @@
 package com.auth.config;
 
+import com.auth.security.BoundedPasswordEncoder;
+import com.auth.security.CalibratedBCryptPasswordEncoder;
 import com.auth.security.JwtAuthenticationFilter;
+import com.auth.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,14 +15,13 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -34,9 +37,25 @@ public class SecurityConfig {
         return Arrays.asList(corsAllowedOrigins.split(","));
     }
     
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt isolado em executor próprio (threads = núcleos, fila limitada) para não consumir as threads do Tomcat
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.password-hashing.threads:0}") int threads,
+                                           @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.password-hashing.max-wait:2s}") Duration maxWait,
+                                           @Value("${app.password-hashing.retry-after:1s}") Duration retryAfter,
+                                           @Value("${app.password-hashing.bcrypt.strength:0}") int strength,
+                                           @Value("${app.password-hashing.bcrypt.target-duration:100ms}") Duration targetDuration,
+                                           @Value("${app.password-hashing.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${app.password-hashing.bcrypt.max-strength:16}") int maxStrength) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // strength > 0 fixa o custo; caso contrário ele é calibrado. Em ambos hashes mais fracos que o
+        // custo atual são regravados no login e nunca rebaixados
+        int bcryptStrength = strength > 0
+                ? strength
+                : CalibratedBCryptPasswordEncoder.calibrate(targetDuration, minStrength, maxStrength);
+        return new BoundedPasswordEncoder(new CalibratedBCryptPasswordEncoder(bcryptStrength),
+                poolSize, queueCapacity, maxWait, retryAfter, meterRegistry);
     }
     
     @Bean
@@ -58,19 +77,26 @@ public class SecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           RateLimitFilter rateLimitFilter) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/api/auth/logout").authenticated()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/users/me").authenticated()
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
                 // Swagger UI and API docs
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Admissão antes de qualquer verificação de token, BCrypt ou acesso ao banco
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -2,6 +2,7 @@ package com.auth.controller;
 
 import com.auth.dto.AuthDTO;
 import com.auth.dto.LoginDTO;
+import com.auth.dto.RefreshTokenDTO;
 import com.auth.dto.RegisterDTO;
 import com.auth.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,20 +11,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Endpoints para autenticação e registro de usuários")
 public class AuthController {
     
-    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
-    
     private final AuthService authService;
     
     public AuthController(AuthService authService) {
@@ -49,16 +47,43 @@ public class AuthController {
                 content = @Content(schema = @Schema(implementation = AuthDTO.class))),
         @ApiResponse(responseCode = "401", description = "Credenciais inválidas"),
         @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos"),
+        @ApiResponse(responseCode = "429", description = "Conta ou origem bloqueada temporariamente por excesso de falhas"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PostMapping("/login")
-    public ResponseEntity<AuthDTO> login(@Valid @RequestBody LoginDTO request) {
-        logger.info("Login attempt for email: {}", request.email());
-        AuthDTO response = authService.login(request);
-        logger.info("Login successful for email: {}", request.email());
+    public ResponseEntity<AuthDTO> login(@Valid @RequestBody LoginDTO request, HttpServletRequest httpRequest) {
+        // Tentativas e resultados vão para a trilha de auditoria (AuditLogService), gravada em lote
+        AuthDTO response = authService.login(request, httpRequest.getRemoteAddr());
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "Renovar token", description = "Troca um refresh token por um novo token JWT e um novo refresh token")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tokens renovados com sucesso",
+                content = @Content(schema = @Schema(implementation = AuthDTO.class))),
+        @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado ou reutilizado"),
+        @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthDTO> refresh(@Valid @RequestBody RefreshTokenDTO request) {
+        AuthDTO response = authService.refresh(request);
         return ResponseEntity.ok(response);
     }
     
+    @Operation(summary = "Fazer logout", description = "Revoga o token JWT atual e, se informado, o refresh token da sessão")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Logout realizado com sucesso"),
+        @ApiResponse(responseCode = "401", description = "Token JWT inválido ou ausente")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) RefreshTokenDTO request) {
+        String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+        authService.logout(token, request != null ? request.refreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+    
     @Operation(summary = "Teste de conectividade", description = "Verifica se o serviço de autenticação está funcionando")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Serviço funcionando normalmente")
@@ -0,0 +1,47 @@
+package com.auth.controller;
+
+import com.auth.security.JwtSigningKeys;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@Tag(name = "JWKS", description = "Chaves públicas para verificação local dos tokens JWT")
+public class JwksController {
+    
+    private final String jwks;
+    private final String eTag;
+    private final CacheControl cacheControl;
+    
+    public JwksController(JwtSigningKeys signingKeys, @Value("${app.jwt.jwks.max-age:1h}") Duration maxAge) {
+        this.jwks = signingKeys.getJwks();
+        this.eTag = jwks == null ? null : Integer.toHexString(jwks.hashCode());
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+    
+    @Operation(summary = "JSON Web Key Set", description = "Chaves públicas (ativa e de rotação) usadas para assinar os tokens JWT")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "JWKS retornado com sucesso"),
+        @ApiResponse(responseCode = "304", description = "JWKS não modificado (If-None-Match)"),
+        @ApiResponse(responseCode = "404", description = "Assinatura simétrica (HMAC) - nenhuma chave pública publicada")
+    })
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        if (jwks == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .body(jwks);
+    }
+}
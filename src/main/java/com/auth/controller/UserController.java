@@ -2,9 +2,15 @@ package com.auth.controller;
 
 import com.auth.dto.RoleDTO;
 import com.auth.dto.UserDTO;
+import com.auth.dto.UserImportReportDTO;
+import com.auth.dto.UserPageDTO;
 import com.auth.entity.User;
 import com.auth.mapper.UserMapper;
+import com.auth.security.JwtPrincipal;
 import com.auth.service.AuthService;
+import com.auth.service.TokenRevocationService;
+import com.auth.service.UserExportService;
+import com.auth.service.UserImportService;
 import com.auth.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,11 +19,15 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
 import java.util.Set;
 
 @RestController
@@ -28,26 +38,71 @@ public class UserController {
     
     private final UserService userService;
     private final AuthService authService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
 
-    public UserController(UserService userService, AuthService authService) {
+    public UserController(UserService userService, AuthService authService, TokenRevocationService tokenRevocationService,
+                          UserExportService userExportService, UserImportService userImportService) {
         this.userService = userService;
         this.authService = authService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
     }
     
-    @Operation(summary = "Listar todos os usuários", description = "Retorna uma lista de todos os usuários do sistema (apenas para ADMIN)")
+    @Operation(summary = "Listar usuários", description = "Retorna uma página de usuários ordenada por id (apenas para ADMIN). " +
+            "Para a próxima página, envie o nextCursor recebido no parâmetro cursor; size é limitado a 200")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de usuários retornada com sucesso",
-                content = @Content(schema = @Schema(implementation = UserDTO.class))),
+        @ApiResponse(responseCode = "200", description = "Página de usuários retornada com sucesso",
+                content = @Content(schema = @Schema(implementation = UserPageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido"),
         @ApiResponse(responseCode = "403", description = "Acesso negado - apenas ADMIN"),
         @ApiResponse(responseCode = "401", description = "Token JWT inválido ou ausente")
     })
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<UserPageDTO> getUsers(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        UserPageDTO page = userService.getUsers(cursor, size);
+        return ResponseEntity.ok(page);
     }
     
+    @Operation(summary = "Exportar usuários", description = "Exporta todos os usuários ordenados por id em NDJSON (padrão) ou CSV " +
+            "(apenas para ADMIN). A resposta é escrita em streaming, linha a linha, a partir de um cursor no banco")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportação gerada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Formato inválido - use ndjson ou csv"),
+        @ApiResponse(responseCode = "403", description = "Acesso negado - apenas ADMIN"),
+        @ApiResponse(responseCode = "401", description = "Token JWT inválido ou ausente")
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        UserExportService.Format exportFormat = parseExportFormat(format);
+        boolean csv = exportFormat == UserExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"");
+        userExportService.export(exportFormat, response.getOutputStream());
+    }
+
+    @Operation(summary = "Importar usuários", description = "Cria usuários em lote com a role DEFAULT (apenas para ADMIN). " +
+            "O corpo é um array JSON ou NDJSON de objetos no formato do registro (email, password, firstName, lastName) e " +
+            "é processado em streaming; a resposta traz o resultado de cada linha (CREATED, DUPLICATE ou INVALID)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação processada",
+                content = @Content(schema = @Schema(implementation = UserImportReportDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Conteúdo não é JSON/NDJSON válido"),
+        @ApiResponse(responseCode = "403", description = "Acesso negado - apenas ADMIN"),
+        @ApiResponse(responseCode = "401", description = "Token JWT inválido ou ausente"),
+        @ApiResponse(responseCode = "503", description = "Executor de hashing sobrecarregado")
+    })
+    @PostMapping(value = "/import", consumes = { "application/json", "application/x-ndjson" })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportReportDTO> importUsers(InputStream body) {
+        return ResponseEntity.ok(userImportService.importUsers(body));
+    }
+
     @Operation(summary = "Obter usuário atual", description = "Retorna os dados do usuário autenticado")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Dados do usuário retornados com sucesso",
@@ -62,6 +117,11 @@ public class UserController {
             UserDTO userResponse = UserMapper.INSTANCE.toDto(currentUser);
             return ResponseEntity.ok(userResponse);
         }
+        // Modo stateless: o principal só carrega as claims do token, então os dados completos vêm do banco
+        JwtPrincipal principal = authService.getCurrentTokenPrincipal();
+        if (principal != null) {
+            return ResponseEntity.ok(userService.getUserById(principal.id()));
+        }
         return ResponseEntity.notFound().build();
     }
     
@@ -111,4 +171,26 @@ public class UserController {
         UserDTO user = userService.addRolesToUser(id, roles);
         return ResponseEntity.ok(user);
     }
+
+    @Operation(summary = "Encerrar sessões do usuário", description = "Revoga todos os tokens JWT e refresh tokens emitidos para o usuário")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Sessões encerradas com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+        @ApiResponse(responseCode = "403", description = "Acesso negado - apenas ADMIN"),
+        @ApiResponse(responseCode = "401", description = "Token JWT inválido ou ausente")
+    })
+    @DeleteMapping("/{id}/sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeSessions(@PathVariable Long id) {
+        tokenRevocationService.revokeAllSessions(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static UserExportService.Format parseExportFormat(String format) {
+        try {
+            return UserExportService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportação inválido: " + format + " (use ndjson ou csv)");
+        }
+    }
 }
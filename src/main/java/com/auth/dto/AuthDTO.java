@@ -8,9 +8,14 @@ public record AuthDTO(
     String email,
     String firstName,
     String lastName,
-    LocalDateTime expiresAt
+    LocalDateTime expiresAt,
+    String refreshToken
 ) {
+    public AuthDTO(String token, String type, String email, String firstName, String lastName, LocalDateTime expiresAt) {
+        this(token, type, email, firstName, lastName, expiresAt, null);
+    }
+    
     public AuthDTO(String token, String email, String firstName, String lastName, LocalDateTime expiresAt) {
-        this(token, "Bearer", email, firstName, lastName, expiresAt);
+        this(token, "Bearer", email, firstName, lastName, expiresAt, null);
     }
-}
\ No newline at end of file
+}
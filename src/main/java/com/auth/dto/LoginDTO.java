@@ -1,13 +1,22 @@
 package com.auth.dto;
 
+import com.auth.entity.User;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 public record LoginDTO(
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
+    @Size(max = 254, message = "Email must not exceed 254 characters")
     String email,
     
     @NotBlank(message = "Password is required")
     String password
-) {}
\ No newline at end of file
+) {
+
+    // Email na forma canônica antes de chegar ao AuthenticationManager, ao throttling e à auditoria
+    public LoginDTO {
+        email = User.normalizeEmail(email);
+    }
+}
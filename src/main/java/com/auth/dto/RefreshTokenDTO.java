@@ -0,0 +1,8 @@
+package com.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenDTO(
+    @NotBlank(message = "Refresh token is required")
+    String refreshToken
+) {}
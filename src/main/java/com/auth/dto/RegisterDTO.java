@@ -1,5 +1,6 @@
 package com.auth.dto;
 
+import com.auth.entity.User;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -7,6 +8,7 @@ import jakarta.validation.constraints.Size;
 public record RegisterDTO(
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
+    @Size(max = 254, message = "Email must not exceed 254 characters")
     String email,
     
     @NotBlank(message = "Password is required")
@@ -20,4 +22,10 @@ public record RegisterDTO(
     @NotBlank(message = "Last name is required")
     @Size(max = 50, message = "Last name must not exceed 50 characters")
     String lastName
-) {}
\ No newline at end of file
+) {
+
+    // Email sempre na forma canônica, inclusive nas linhas da importação (Jackson usa este construtor)
+    public RegisterDTO {
+        email = User.normalizeEmail(email);
+    }
+}
@@ -0,0 +1,11 @@
+package com.auth.dto;
+
+import java.util.List;
+
+public record UserImportReportDTO(
+    int total,
+    int created,
+    int duplicates,
+    int invalid,
+    List<UserImportRowDTO> rows
+) {}
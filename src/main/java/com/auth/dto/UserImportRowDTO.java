@@ -0,0 +1,10 @@
+package com.auth.dto;
+
+public record UserImportRowDTO(
+    int row,
+    String email,
+    Status status,
+    String message
+) {
+    public enum Status { CREATED, DUPLICATE, INVALID }
+}
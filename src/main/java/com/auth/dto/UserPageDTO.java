@@ -0,0 +1,9 @@
+package com.auth.dto;
+
+import java.util.List;
+
+public record UserPageDTO(
+    List<UserDTO> users,
+    String nextCursor,
+    boolean hasNext
+) {}
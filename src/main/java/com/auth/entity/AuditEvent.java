@@ -0,0 +1,127 @@
+package com.auth.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Registro da trilha de auditoria. Gravado em lote via JDBC pelo AuditLogService; o mapeamento JPA
+// descreve a tabela (particionada por mês no PostgreSQL) para a validação do schema e para os testes
+@Entity
+@Table(name = "auth_audit_events")
+public class AuditEvent {
+    
+    public enum Type {
+        LOGIN_SUCCESS, LOGIN_FAILURE, LOGIN_BLOCKED, ROLES_ADDED, ROLES_REMOVED
+    }
+    
+    private static final int ACTOR_LENGTH = 320;
+    private static final int CLIENT_ADDRESS_LENGTH = 64;
+    private static final int DETAIL_LENGTH = 255;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private Type type;
+    
+    // Quem executou a ação: o email informado no login ou o administrador que alterou as roles
+    @Column(length = ACTOR_LENGTH)
+    private String actor;
+    
+    // Usuário afetado, quando conhecido; sem FK para que o registro sobreviva à exclusão do usuário
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "client_address", length = CLIENT_ADDRESS_LENGTH)
+    private String clientAddress;
+    
+    @Column(length = DETAIL_LENGTH)
+    private String detail;
+    
+    public AuditEvent() {}
+    
+    // Valores truncados ao tamanho das colunas antes de entrar na fila: um campo longo demais faria o
+    // banco recusar o evento na gravação em lote
+    private AuditEvent(Type type, String actor, Long userId, String clientAddress, String detail) {
+        this.occurredAt = LocalDateTime.now();
+        this.type = type;
+        this.actor = truncate(actor, ACTOR_LENGTH);
+        this.userId = userId;
+        this.clientAddress = truncate(clientAddress, CLIENT_ADDRESS_LENGTH);
+        this.detail = truncate(detail, DETAIL_LENGTH);
+    }
+    
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+    
+    public static AuditEvent login(Type type, String email, Long userId, String clientAddress, String detail) {
+        return new AuditEvent(type, email, userId, clientAddress, detail);
+    }
+    
+    public static AuditEvent roleChange(Type type, String actor, Long userId, String detail) {
+        return new AuditEvent(type, actor, userId, null, detail);
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public String getActor() {
+        return actor;
+    }
+    
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getClientAddress() {
+        return clientAddress;
+    }
+    
+    public void setClientAddress(String clientAddress) {
+        this.clientAddress = clientAddress;
+    }
+    
+    public String getDetail() {
+        return detail;
+    }
+    
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
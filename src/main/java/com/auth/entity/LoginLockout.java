@@ -0,0 +1,73 @@
+package com.auth.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Bloqueio de login persistido em write-behind pelo LoginAttemptService, para sobreviver a reinícios
+@Entity
+@Table(name = "login_lockouts")
+public class LoginLockout {
+    
+    // "account:<sha256 do email>" ou "source:<sha256 do endereço do cliente>"
+    @Id
+    @Column(name = "throttle_key", length = 320)
+    private String throttleKey;
+    
+    // Quantos bloqueios seguidos a chave já recebeu; define a duração exponencial do próximo
+    @Column(nullable = false)
+    private int lockouts;
+    
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public LoginLockout() {}
+    
+    public LoginLockout(String throttleKey, int lockouts, LocalDateTime lockedUntil) {
+        this.throttleKey = throttleKey;
+        this.lockouts = lockouts;
+        this.lockedUntil = lockedUntil;
+    }
+    
+    // Getters and Setters
+    public String getThrottleKey() {
+        return throttleKey;
+    }
+    
+    public void setThrottleKey(String throttleKey) {
+        this.throttleKey = throttleKey;
+    }
+    
+    public int getLockouts() {
+        return lockouts;
+    }
+    
+    public void setLockouts(int lockouts) {
+        this.lockouts = lockouts;
+    }
+    
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+    
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
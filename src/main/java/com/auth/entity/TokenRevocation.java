@@ -0,0 +1,102 @@
+package com.auth.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "token_revocations")
+public class TokenRevocation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Claim jti do token revogado (logout)
+    @Column(name = "token_id", unique = true, length = 64)
+    private String tokenId;
+    
+    // Revogação por usuário: tokens com versão de segurança menor que minSecurityVersion
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "min_security_version")
+    private Long minSecurityVersion;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public TokenRevocation() {}
+    
+    public static TokenRevocation forToken(String tokenId, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.tokenId = tokenId;
+        revocation.expiresAt = expiresAt;
+        return revocation;
+    }
+    
+    public static TokenRevocation forUser(Long userId, long minSecurityVersion, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.userId = userId;
+        revocation.minSecurityVersion = minSecurityVersion;
+        revocation.expiresAt = expiresAt;
+        return revocation;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTokenId() {
+        return tokenId;
+    }
+    
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getMinSecurityVersion() {
+        return minSecurityVersion;
+    }
+    
+    public void setMinSecurityVersion(Long minSecurityVersion) {
+        this.minSecurityVersion = minSecurityVersion;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
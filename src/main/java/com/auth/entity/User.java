@@ -1,25 +1,31 @@
 package com.auth.entity;
 
+import com.auth.security.RoleAuthorities;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
 public class User implements UserDetails {
     
+    // Tamanho do bloco de ids reservado por nextval; deve ser igual ao INCREMENT BY de users_id_seq (V6)
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Sequence com otimizador pooled em vez de IDENTITY: o id é conhecido antes do INSERT, o que
+    // permite ao Hibernate agrupar os INSERTs (users e user_roles) em batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank
@@ -49,6 +55,9 @@ public class User implements UserDetails {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Column(name = "security_version", nullable = false)
+    private long securityVersion;
+    
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "user_roles",
@@ -71,18 +80,33 @@ public class User implements UserDetails {
     public User() {}
     
     public User(String email, String password, String firstName, String lastName) {
-        this.email = email;
+        this.email = normalizeEmail(email);
         this.password = password;
         this.firstName = firstName;
         this.lastName = lastName;
     }
     
+    /**
+     * Forma canônica do email: sem espaços nas pontas e em minúsculas (Locale.ROOT, para não depender
+     * do idioma da JVM). É a forma gravada em users.email e a usada em todas as buscas, que assim
+     * comparam por igualdade simples e usam o índice único da coluna.
+     * <p>
+     * O CHECK da migração V9 ({@code email = lower(btrim(email))}) não é equivalente: {@code trim()}
+     * remove também caracteres de controle e {@code toLowerCase} converte qualquer letra Unicode, enquanto
+     * {@code btrim} remove só espaços e {@code lower} segue o LC_CTYPE do banco (com {@code C}, só ASCII).
+     * Todo valor produzido aqui passa no CHECK, mas o inverso não vale: emails legados com maiúsculas
+     * não ASCII ou tabulações nas pontas ficam, após a V9, numa forma que a aplicação não encontra e
+     * precisam ser corrigidos manualmente com este mesmo método.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+    
     // UserDetails implementation
+    // Lista imutável compartilhada por todos os usuários com a mesma combinação de roles
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().name()))
-                .collect(Collectors.toList());
+        return RoleAuthorities.forRoles(roles);
     }
     
     @Override
@@ -129,7 +153,7 @@ public class User implements UserDetails {
     }
     
     public void setEmail(String email) {
-        this.email = email;
+        this.email = normalizeEmail(email);
     }
     
     public void setPassword(String password) {
@@ -168,6 +192,20 @@ public class User implements UserDetails {
         this.updatedAt = updatedAt;
     }
     
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+    
+    public void setSecurityVersion(long securityVersion) {
+        this.securityVersion = securityVersion;
+    }
+    
+    // Chamado apenas por TokenRevocationService.revokeIssuedAccessTokens, que registra a revogação dos
+    // tokens com a versão anterior; incrementar sem ela não invalida nada
+    public void incrementSecurityVersion() {
+        this.securityVersion++;
+    }
+    
     public Set<Role> getRoles() {
         return roles;
     }
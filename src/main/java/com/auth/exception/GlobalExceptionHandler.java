@@ -3,6 +3,7 @@ package com.auth.exception;
 import com.auth.dto.ErrorDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -66,6 +67,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
     
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorDTO> handleInvalidRefreshToken(InvalidRefreshTokenException ex, HttpServletRequest request) {
+        logger.warn("Invalid refresh token: {}", ex.getMessage());
+        
+        ErrorDTO errorResponse = new ErrorDTO(
+            ex.getMessage(),
+            ex.getErrorCode(),
+            HttpStatus.UNAUTHORIZED.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+    }
+    
     @ExceptionHandler(RoleNotFoundException.class)
     public ResponseEntity<ErrorDTO> handleRoleNotFound(RoleNotFoundException ex, HttpServletRequest request) {
         logger.error("Role not found: {}", ex.getMessage());
@@ -80,6 +95,38 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
     
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorDTO> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, HttpServletRequest request) {
+        logger.warn("Password hashing overloaded: {}", ex.getMessage());
+        
+        ErrorDTO errorResponse = new ErrorDTO(
+            "Serviço temporariamente indisponível, tente novamente em instantes",
+            ex.getErrorCode(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+    
+    @ExceptionHandler(LoginBlockedException.class)
+    public ResponseEntity<ErrorDTO> handleLoginBlocked(LoginBlockedException ex, HttpServletRequest request) {
+        logger.warn("Login blocked: {}", ex.getMessage());
+        
+        ErrorDTO errorResponse = new ErrorDTO(
+            "Muitas tentativas de login, tente novamente mais tarde",
+            ex.getErrorCode(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+    
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorDTO> handleBadCredentials(BadCredentialsException ex, HttpServletRequest request) {
         logger.warn("Bad credentials attempt: {}", ex.getMessage());
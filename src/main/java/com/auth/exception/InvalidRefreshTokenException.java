@@ -0,0 +1,12 @@
+package com.auth.exception;
+
+public class InvalidRefreshTokenException extends AuthException {
+    
+    public InvalidRefreshTokenException(String message) {
+        super(message, "INVALID_REFRESH_TOKEN");
+    }
+    
+    public InvalidRefreshTokenException(String message, Throwable cause) {
+        super(message, "INVALID_REFRESH_TOKEN", cause);
+    }
+}
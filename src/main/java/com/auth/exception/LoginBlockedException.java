@@ -0,0 +1,15 @@
+package com.auth.exception;
+
+public class LoginBlockedException extends AuthException {
+    
+    private final long retryAfterSeconds;
+    
+    public LoginBlockedException(String message, long retryAfterSeconds) {
+        super(message, "TOO_MANY_ATTEMPTS");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
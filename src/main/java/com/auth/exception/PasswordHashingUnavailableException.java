@@ -0,0 +1,20 @@
+package com.auth.exception;
+
+public class PasswordHashingUnavailableException extends AuthException {
+    
+    private final long retryAfterSeconds;
+    
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message, "SERVICE_OVERLOADED");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, "SERVICE_OVERLOADED", cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
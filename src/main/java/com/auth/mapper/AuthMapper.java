@@ -21,5 +21,6 @@ public interface AuthMapper {
     @Mapping(target = "firstName", source = "user.firstName")
     @Mapping(target = "lastName", source = "user.lastName")
     @Mapping(target = "expiresAt", source = "expiresAt")
-    AuthDTO toAuthDTO(User user, String token, LocalDateTime expiresAt);
+    @Mapping(target = "refreshToken", source = "refreshToken")
+    AuthDTO toAuthDTO(User user, String token, LocalDateTime expiresAt, String refreshToken);
 }
@@ -5,11 +5,15 @@ import com.auth.dto.RoleDTO;
 import com.auth.dto.UserDTO;
 import com.auth.entity.Role;
 import com.auth.entity.User;
+import com.auth.repository.projection.UserRoleRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
 import org.mapstruct.factory.Mappers;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -29,4 +33,17 @@ public interface UserMapper {
         return roles.stream().map(role -> new RoleDTO(role.getName().name())).collect(Collectors.toSet());
     }
     
+    // Agrupa as linhas da projeção (uma por role) em um UserDTO por usuário, preservando a ordem da consulta
+    default List<UserDTO> fromRoleRows(List<UserRoleRow> rows) {
+        Map<Long, UserDTO> users = new LinkedHashMap<>();
+        for (UserRoleRow row : rows) {
+            UserDTO user = users.computeIfAbsent(row.id(), id -> new UserDTO(id, row.email(), row.firstName(),
+                    row.lastName(), new HashSet<>(), row.createdAt(), row.updatedAt()));
+            if (row.role() != null) {
+                user.roles().add(new RoleDTO(row.role().name()));
+            }
+        }
+        return List.copyOf(users.values());
+    }
+    
 }
@@ -0,0 +1,22 @@
+package com.auth.repository;
+
+import com.auth.entity.LoginLockout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoginLockoutRepository extends JpaRepository<LoginLockout, String> {
+    
+    @Query("SELECT l FROM LoginLockout l WHERE l.lockedUntil > :now")
+    List<LoginLockout> findActive(@Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM LoginLockout l WHERE l.lockedUntil <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,27 @@
+package com.auth.repository;
+
+import com.auth.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    
+    @Query("SELECT r.tokenId FROM TokenRevocation r WHERE r.tokenId IS NOT NULL AND r.expiresAt > :now")
+    List<String> findActiveTokenIds(@Param("now") LocalDateTime now);
+    
+    // Cada linha: [userId, maior minSecurityVersion vigente]
+    @Query("SELECT r.userId, MAX(r.minSecurityVersion) FROM TokenRevocation r " +
+           "WHERE r.userId IS NOT NULL AND r.expiresAt > :now GROUP BY r.userId")
+    List<Object[]> findActiveUserRevocations(@Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
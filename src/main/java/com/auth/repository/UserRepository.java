@@ -1,17 +1,29 @@
 package com.auth.repository;
 
 import com.auth.entity.User;
+import com.auth.repository.projection.UserRoleRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
-    // Consulta otimizada com JOIN FETCH para trazer User + Roles em uma query
+    // Buscas por email recebem a forma canônica (User.normalizeEmail) e comparam por igualdade na coluna,
+    // sem lower(): assim usam o índice único users_email_key. UserRepositoryPostgresTest verifica o plano
+    
+    // Consulta otimizada com JOIN FETCH para trazer User + Roles em uma query. readOnly para que a carga do
+    // usuário na autenticação (sem transação em UserService.loadUserByUsername) possa ir para uma réplica
+    @Transactional(readOnly = true)
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
     Optional<User> findByEmail(@Param("email") String email);
     
@@ -22,7 +34,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Consulta para verificar se email existe (sem carregar roles)
     boolean existsByEmail(String email);
     
-    // Consulta para buscar todos os usuários com roles (para admin)
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles")
-    java.util.List<User> findAllWithRoles();
+    // Versão em lote do existsByEmail: uma consulta por bloco da importação
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    // Atualiza apenas o hash da senha, sem carregar a entidade
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = CURRENT_TIMESTAMP WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+    
+    // Paginação por keyset: busca pelo índice da PK a partir do último id da página anterior, sem OFFSET
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+    
+    // Projeções de leitura: apenas as colunas do UserDTO e o nome das roles, sem hash de senha e sem
+    // entidades no contexto de persistência. Uma linha por role; UserMapper.fromRoleRows agrupa por usuário
+    @Query(ROLE_ROW_SELECT + "WHERE u.id = :id")
+    List<UserRoleRow> findRoleRowsById(@Param("id") Long id);
+    
+    @Query(ROLE_ROW_SELECT + "WHERE u.email = :email")
+    List<UserRoleRow> findRoleRowsByEmail(@Param("email") String email);
+    
+    // Apenas os usuários da página; o join fica limitado ao tamanho da página
+    @Query(ROLE_ROW_SELECT + "WHERE u.id IN :ids ORDER BY u.id")
+    List<UserRoleRow> findRoleRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    String ROLE_ROW_SELECT = "SELECT new com.auth.repository.projection.UserRoleRow("
+            + "u.id, u.email, u.firstName, u.lastName, u.createdAt, u.updatedAt, r.name) "
+            + "FROM User u LEFT JOIN u.roles r ";
 }
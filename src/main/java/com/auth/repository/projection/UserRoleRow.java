@@ -0,0 +1,19 @@
+package com.auth.repository.projection;
+
+import com.auth.entity.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha de leitura de usuário montada direto pela consulta (constructor expression), sem entidade
+ * gerenciada: uma linha por role do usuário, ou uma linha com {@code role} nulo se não houver roles.
+ */
+public record UserRoleRow(
+    Long id,
+    String email,
+    String firstName,
+    String lastName,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    Role.RoleName role
+) {}
@@ -0,0 +1,185 @@
+package com.auth.security;
+
+import com.auth.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} que executa o hashing (BCrypt) em um executor dedicado, com threads
+ * dimensionadas pelos núcleos e fila limitada.
+ * <p>
+ * Assim o custo de CPU de logins e registros fica isolado das threads do Tomcat: quando a fila
+ * está cheia, ou a espera passa de {@code maxWait}, a chamada falha imediatamente com
+ * {@link PasswordHashingUnavailableException} (503 + Retry-After) em vez de acumular threads.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final long BATCH_RETRY_DELAY_MILLIS = 10;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  Duration maxWait, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWait.toMillis();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .description("Tempo de execução do hashing de senha")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "matches")
+                .description("Tempo de execução do hashing de senha")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Operações de hashing recusadas por fila cheia ou espera excedida")
+                .register(meterRegistry);
+        // executor.queued, executor.active, executor.completed etc. com tag name=password-hashing
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    /**
+     * Codifica várias senhas em paralelo (importação em lote). Cada chamada mantém no máximo uma
+     * tarefa pendente por thread do executor, então o lote usa todos os núcleos sem ocupar a fila que
+     * atende logins e registros. Com a fila cheia o lote espera e tenta de novo em vez de falhar; não
+     * há limite de espera, já que o lote não tem um cliente aguardando cada hash.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                inFlight.acquire();
+                Callable<String> task = () -> {
+                    try {
+                        return encodeTimer.recordCallable(() -> delegate.encode(rawPassword));
+                    } finally {
+                        inFlight.release();
+                    }
+                };
+                futures.add(submitWhenAccepted(task, inFlight));
+            }
+            List<String> encoded = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                encoded.add(future.get());
+            }
+            return encoded;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw overloaded(e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Future<String> submitWhenAccepted(Callable<String> task, Semaphore inFlight) throws InterruptedException {
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    inFlight.release();
+                    throw overloaded(e);
+                }
+                Thread.sleep(BATCH_RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            throw overloaded(e);
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw overloaded(e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private PasswordHashingUnavailableException overloaded(Exception cause) {
+        rejectedCounter.increment();
+        return new PasswordHashingUnavailableException(
+                "Serviço temporariamente sobrecarregado, tente novamente", retryAfterSeconds, cause);
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.auth.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt com custo (work factor) definido por calibração no próprio host.
+ * <p>
+ * {@link #upgradeEncoding(String)} só sinaliza hashes com custo abaixo do custo atual e nunca rebaixa
+ * um hash. Nós que calibram valores diferentes não regravam os hashes uns dos outros em ciclo: um hash
+ * só é regravado para um custo maior, então cada senha converge para o maior custo entre os nós.
+ */
+public class CalibratedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Escolhe o maior custo cujo hashing cabe em {@code target} neste host, limitado a
+     * [{@code minStrength}, {@code maxStrength}]. O piso garante que um host lento nunca reduza o
+     * custo abaixo do mínimo de segurança; em hosts rápidos o custo sobe automaticamente.
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        long targetNanos = target.toNanos();
+        // Aquece o JIT com um custo baixo para não medir a primeira execução interpretada
+        BCryptPasswordEncoder warmup = new BCryptPasswordEncoder(4);
+        for (int i = 0; i < 10; i++) {
+            warmup.encode(CALIBRATION_PASSWORD);
+        }
+
+        int chosen = minStrength;
+        long elapsed = measure(minStrength);
+        // Cada incremento de custo dobra o tempo de hashing
+        while (chosen < maxStrength && elapsed * 2 <= targetNanos) {
+            chosen++;
+            elapsed = measure(chosen);
+        }
+        log.info("BCrypt calibrated to strength {} ({} ms per hash, target {} ms)",
+                chosen, Duration.ofNanos(elapsed).toMillis(), target.toMillis());
+        return chosen;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) < strength;
+    }
+}
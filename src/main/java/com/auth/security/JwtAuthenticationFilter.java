@@ -1,7 +1,11 @@
 package com.auth.security;
 
-import com.auth.service.JwtService;
+import com.auth.service.TokenRevocationService;
 import com.auth.service.UserService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -16,46 +20,105 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean statelessAuthentication;
+    private final Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
     
-    public JwtAuthenticationFilter(JwtService jwtService, UserService userService) {
-        this.jwtService = jwtService;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, UserService userService,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${app.jwt.stateless-authentication:false}") boolean statelessAuthentication,
+                                   MeterRegistry meterRegistry) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessAuthentication = statelessAuthentication;
+        for (Outcome outcome : Outcome.values()) {
+            timers.put(outcome, Timer.builder("auth.filter")
+                    .tag("outcome", outcome.tag)
+                    .description("Tempo gasto pelo filtro JWT para autenticar a requisição")
+                    .register(meterRegistry));
+        }
+    }
+    
+    // Valores fixos da tag outcome de auth.filter
+    enum Outcome {
+        NO_TOKEN, INVALID, REVOKED, AUTHENTICATED, REJECTED, ALREADY_AUTHENTICATED;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
     }
     
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, 
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
         
+        // Mede apenas o trabalho do filtro; o restante da requisição já aparece em http.server.requests
+        long start = System.nanoTime();
+        Outcome outcome = authenticate(request);
+        timers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    private Outcome authenticate(HttpServletRequest request) {
         var authHeader = request.getHeader("Authorization");
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
+            return Outcome.NO_TOKEN;
         }
         
         var jwt = authHeader.substring(7);
-        var userEmail = jwtService.extractUsername(jwt);
-        
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(userEmail);
-            
-            if (jwtService.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        
+        // O token é verificado e decodificado uma única vez; o resultado atende todas as checagens abaixo
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = request.getAttribute(VerifiedTokenCache.REQUEST_ATTRIBUTE) instanceof VerifiedToken cached
+                    ? cached
+                    : verifiedTokenCache.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Outcome.INVALID;
         }
         
-        filterChain.doFilter(request, response);
+        // Consulta ao snapshot em memória das revogações (logout / sessões encerradas), sem acesso ao banco
+        if (tokenRevocationService.isRevoked(verifiedToken)) {
+            return Outcome.REVOKED;
+        }
+        
+        var userEmail = verifiedToken.subject();
+        
+        if (userEmail == null) {
+            return Outcome.REJECTED;
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return Outcome.ALREADY_AUTHENTICATED;
+        }
+        
+        // No modo stateless o principal vem das claims; tokens antigos sem claims caem na consulta ao banco
+        UserDetails userDetails = statelessAuthentication
+                ? verifiedToken.toPrincipal().map(UserDetails.class::cast)
+                        .orElseGet(() -> this.userService.loadUserByUsername(userEmail))
+                : this.userService.loadUserByUsername(userEmail);
+        
+        if (!verifiedToken.belongsTo(userDetails)) {
+            return Outcome.REJECTED;
+        }
+        
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null,
+            userDetails.getAuthorities()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return Outcome.AUTHENTICATED;
     }
 }
@@ -0,0 +1,34 @@
+package com.auth.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal leve construído diretamente das claims de um JWT verificado,
+ * usado no modo de autenticação stateless (sem consulta ao banco por requisição).
+ */
+public record JwtPrincipal(
+    Long id,
+    String email,
+    List<GrantedAuthority> authorities,
+    long securityVersion
+) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,177 @@
+package com.auth.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Material de chave usado para assinar e verificar JWTs.
+ * <p>
+ * Com HMAC há uma única chave simétrica compartilhada (HS256/384/512 conforme o tamanho do
+ * segredo) e nenhum JWKS é publicado. Com RS256, ES256 ou EdDSA o token é assinado pela chave
+ * privada ativa e leva o {@code kid} (thumbprint RFC 7638 da chave pública) no header; a
+ * verificação aceita a chave ativa e as chaves públicas adicionais (anteriores ainda válidas ou a
+ * próxima, já publicada), o que permite rotação sem invalidar tokens.
+ */
+public final class JwtSigningKeys {
+
+    public static final String HMAC = "HMAC";
+
+    private final String algorithm;
+    private final SecureDigestAlgorithm<Key, Key> signatureAlgorithm;
+    private final Key signingKey;
+    private final String activeKeyId;
+    private final Map<String, Key> verificationKeys;
+    private final String jwks;
+
+    private JwtSigningKeys(String algorithm, Key signingKey, String activeKeyId,
+                           Map<String, Key> verificationKeys, String jwks) {
+        this.algorithm = algorithm;
+        this.signatureAlgorithm = signatureAlgorithm(algorithm);
+        this.signingKey = signingKey;
+        this.activeKeyId = activeKeyId;
+        this.verificationKeys = Map.copyOf(verificationKeys);
+        this.jwks = jwks;
+    }
+
+    public static JwtSigningKeys hmac(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes());
+        return new JwtSigningKeys(HMAC, key, null, Map.of(), null);
+    }
+
+    /**
+     * @param additionalPublicKeys chaves aceitas apenas na verificação e publicadas no JWKS
+     */
+    public static JwtSigningKeys asymmetric(String algorithm, KeyPair activeKeyPair, List<PublicKey> additionalPublicKeys) {
+        String normalized = normalize(algorithm);
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        List<String> publicJwks = new ArrayList<>();
+
+        PublicJwk<?> activeJwk = toJwk(normalized, activeKeyPair.getPublic());
+        verificationKeys.put(activeJwk.getId(), activeKeyPair.getPublic());
+        publicJwks.add(Jwks.json(activeJwk));
+        for (PublicKey publicKey : additionalPublicKeys) {
+            PublicJwk<?> jwk = toJwk(normalized, publicKey);
+            if (verificationKeys.putIfAbsent(jwk.getId(), publicKey) == null) {
+                publicJwks.add(Jwks.json(jwk));
+            }
+        }
+        String jwks = "{\"keys\":[" + String.join(",", publicJwks) + "]}";
+        return new JwtSigningKeys(normalized, activeKeyPair.getPrivate(), activeJwk.getId(), verificationKeys, jwks);
+    }
+
+    // Par de chaves efêmero (perde-se no restart); adequado apenas para desenvolvimento e benchmarks
+    public static KeyPair generateKeyPair(String algorithm) {
+        return switch (normalize(algorithm)) {
+            case "RS256" -> Jwts.SIG.RS256.keyPair().build();
+            case "ES256" -> Jwts.SIG.ES256.keyPair().build();
+            // Ed25519: curva padrão do EdDSA em JWT; o keyPair() de Jwts.SIG.EdDSA geraria Ed448
+            case "EdDSA" -> Jwks.CRV.Ed25519.keyPair().build();
+            default -> throw new IllegalArgumentException("Algoritmo assimétrico não suportado: " + algorithm);
+        };
+    }
+
+    public static PrivateKey parsePrivateKey(String algorithm, String pem) {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm(algorithm)).generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Chave privada PKCS#8 inválida para " + algorithm, e);
+        }
+    }
+
+    public static PublicKey parsePublicKey(String algorithm, String pem) {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm(algorithm)).generatePublic(new X509EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Chave pública X.509 inválida para " + algorithm, e);
+        }
+    }
+
+    public static boolean isAsymmetric(String algorithm) {
+        return !HMAC.equals(normalize(algorithm));
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    // null com HMAC: o jjwt escolhe HS256/384/512 pelo tamanho da chave, como antes
+    public SecureDigestAlgorithm<Key, Key> getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    // null com HMAC: tokens simétricos não levam kid
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public Key getVerificationKey(String keyId) {
+        return keyId == null ? null : verificationKeys.get(keyId);
+    }
+
+    // Documento JWKS já serializado; null com HMAC (a chave simétrica nunca é publicada)
+    public String getJwks() {
+        return jwks;
+    }
+
+    private static PublicJwk<?> toJwk(String algorithm, PublicKey publicKey) {
+        return Jwks.builder()
+                .key(publicKey)
+                .algorithm(algorithm)
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SecureDigestAlgorithm<Key, Key> signatureAlgorithm(String algorithm) {
+        SecureDigestAlgorithm<?, ?> resolved = switch (algorithm) {
+            case HMAC -> null;
+            case "RS256" -> Jwts.SIG.RS256;
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("Algoritmo de assinatura não suportado: " + algorithm);
+        };
+        return (SecureDigestAlgorithm<Key, Key>) resolved;
+    }
+
+    private static String keyFactoryAlgorithm(String algorithm) {
+        return switch (normalize(algorithm)) {
+            case "RS256" -> "RSA";
+            case "ES256" -> "EC";
+            case "EdDSA" -> "EdDSA";
+            default -> throw new IllegalArgumentException("Algoritmo assimétrico não suportado: " + algorithm);
+        };
+    }
+
+    private static String normalize(String algorithm) {
+        String upper = algorithm.trim().toUpperCase(Locale.ROOT);
+        return "EDDSA".equals(upper) ? "EdDSA" : upper;
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,155 @@
+package com.auth.security;
+
+import com.auth.dto.ErrorDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controle de admissão por cliente, antes do {@link JwtAuthenticationFilter}.
+ * <p>
+ * Cada grupo de endpoints tem sua política ({@code app.rate-limit.auth.*} para login e registro,
+ * {@code app.rate-limit.users.*} para {@code /api/users/**}); os demais caminhos não são limitados.
+ * Refresh e logout ficam de fora: não recebem credenciais e, com vários clientes atrás do mesmo
+ * endereço, consumiriam o balde do login de todos eles.
+ * Em login e registro a chave é o endereço do cliente. Em {@code /api/users/**} é o subject do
+ * token quando ele já está no {@link VerifiedTokenCache}, e o endereço caso contrário: um token ainda
+ * não verificado nunca vira chave, para que subjects forjados não criem baldes novos.
+ * <p>
+ * O token encontrado fica em {@link VerifiedTokenCache#REQUEST_ATTRIBUTE} e é reaproveitado pelo filtro
+ * JWT. Uma requisição admitida custa uma busca no mapa de baldes e um CAS; a rejeitada recebe 429 com
+ * Retry-After sem chegar ao filtro JWT, ao BCrypt nem ao banco.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final String REGISTER_PATH = "/api/auth/register";
+    private static final String USERS_PATH = "/api/users";
+
+    private final boolean enabled;
+    private final RateLimiter authLimiter;
+    private final RateLimiter usersLimiter;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ObjectMapper objectMapper;
+    private final Counter authRejected;
+    private final Counter usersRejected;
+
+    @Autowired
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.auth.capacity:20}") int authCapacity,
+                           @Value("${app.rate-limit.auth.period:1m}") Duration authPeriod,
+                           @Value("${app.rate-limit.users.capacity:100}") int usersCapacity,
+                           @Value("${app.rate-limit.users.period:10s}") Duration usersPeriod,
+                           @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                           VerifiedTokenCache verifiedTokenCache,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this(enabled, new RateLimiter(authCapacity, authPeriod, maxKeys),
+                new RateLimiter(usersCapacity, usersPeriod, maxKeys), verifiedTokenCache, objectMapper, meterRegistry);
+    }
+
+    RateLimitFilter(boolean enabled, RateLimiter authLimiter, RateLimiter usersLimiter,
+                    VerifiedTokenCache verifiedTokenCache, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.authLimiter = authLimiter;
+        this.usersLimiter = usersLimiter;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.objectMapper = objectMapper;
+        this.authRejected = rejectedCounter(meterRegistry, "auth");
+        this.usersRejected = rejectedCounter(meterRegistry, "users");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String policy) {
+        return Counter.builder("auth.rate_limit.rejected")
+                .tag("policy", policy)
+                .description("Requisições recusadas pelo rate limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        long waitNanos;
+        Counter rejected;
+        if (path.equals(LOGIN_PATH) || path.equals(REGISTER_PATH)) {
+            waitNanos = authLimiter.tryAcquire(request.getRemoteAddr());
+            rejected = authRejected;
+        } else if (isUsersPath(path)) {
+            waitNanos = usersLimiter.tryAcquire(usersKey(request));
+            rejected = usersRejected;
+        } else {
+            waitNanos = 0;
+            rejected = null;
+        }
+
+        if (waitNanos > 0) {
+            rejected.increment();
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // /api/users e /api/users/**, mas não /api/usersX
+    private static boolean isUsersPath(String path) {
+        return path.startsWith(USERS_PATH)
+                && (path.length() == USERS_PATH.length() || path.charAt(USERS_PATH.length()) == '/');
+    }
+
+    // Subjects são emails (sempre com '@') e endereços nunca têm '@': as chaves não colidem sem prefixo
+    private String usersKey(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            VerifiedToken token = verifiedTokenCache.peek(authHeader.substring(7));
+            if (token != null && token.subject() != null) {
+                request.setAttribute(VerifiedTokenCache.REQUEST_ATTRIBUTE, token);
+                return token.subject();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        logger.debug("Rate limit exceeded for {} on {}", request.getRemoteAddr(), request.getRequestURI());
+
+        ErrorDTO errorResponse = new ErrorDTO(
+            "Muitas requisições, tente novamente em instantes",
+            "RATE_LIMITED",
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
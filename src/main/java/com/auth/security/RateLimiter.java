@@ -0,0 +1,72 @@
+package com.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de tokens por chave, com capacidade {@code capacity} e reposição completa em {@code period}.
+ * <p>
+ * Cada balde é um único {@link AtomicLong} com o instante teórico em que ele estará cheio de novo
+ * (formulação GCRA do token bucket): consumir um token é avançar esse instante em
+ * {@code period / capacity} via CAS, e a reposição é calculada sob demanda a partir do relógio, sem
+ * thread de refill. Um balde parado por {@code period} está cheio e equivale a um balde ausente, por
+ * isso as chaves expiram após {@code period} sem acesso; {@code maxKeys} limita a cardinalidade.
+ */
+public class RateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(int capacity, Duration period, long maxKeys) {
+        this(capacity, period, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, Duration period, long maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Capacidade e período do rate limit devem ser positivos");
+        }
+        this.emissionIntervalNanos = period.toNanos() / capacity;
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .build();
+    }
+
+    /**
+     * Consome um token do balde da chave.
+     *
+     * @return 0 se a requisição foi admitida; caso contrário, em nanossegundos, quanto falta para
+     *         haver um token disponível
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong fullAt = buckets.getIfPresent(key);
+        if (fullAt == null) {
+            // O valor inicial representa um balde cheio
+            fullAt = buckets.get(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long estimatedSize() {
+        return buckets.estimatedSize();
+    }
+}
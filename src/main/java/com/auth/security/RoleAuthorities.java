@@ -0,0 +1,85 @@
+package com.auth.security;
+
+import com.auth.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authorities canônicas por {@link Role.RoleName}, pré-computadas uma única vez.
+ * <p>
+ * Cada role tem um único {@link GrantedAuthority} ("ROLE_" + nome) e cada combinação de roles uma
+ * única lista imutável, indexada pela máscara de bits dos ordinais. Montar as authorities de um
+ * usuário ou de um token vira o cálculo da máscara e um acesso ao array, sem concatenar strings nem
+ * alocar objetos a cada chamada.
+ */
+public final class RoleAuthorities {
+
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    private static final Role.RoleName[] ROLE_NAMES = Role.RoleName.values();
+    private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[ROLE_NAMES.length];
+    private static final Map<String, Role.RoleName> BY_NAME;
+    private static final List<GrantedAuthority>[] COMBINATIONS;
+
+    static {
+        Map<String, Role.RoleName> byName = new HashMap<>();
+        for (Role.RoleName name : ROLE_NAMES) {
+            AUTHORITIES[name.ordinal()] = new SimpleGrantedAuthority(ROLE_PREFIX + name.name());
+            byName.put(name.name(), name);
+        }
+        BY_NAME = Map.copyOf(byName);
+
+        @SuppressWarnings("unchecked")
+        List<GrantedAuthority>[] combinations = new List[1 << ROLE_NAMES.length];
+        for (int mask = 0; mask < combinations.length; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role.RoleName name : ROLE_NAMES) {
+                if ((mask & bit(name)) != 0) {
+                    authorities.add(AUTHORITIES[name.ordinal()]);
+                }
+            }
+            combinations[mask] = List.copyOf(authorities);
+        }
+        COMBINATIONS = combinations;
+    }
+
+    private RoleAuthorities() {}
+
+    public static GrantedAuthority of(Role.RoleName name) {
+        return AUTHORITIES[name.ordinal()];
+    }
+
+    // Sem stream nem lista nova: o iterator do for-each não escapa e é eliminado pelo JIT
+    public static List<GrantedAuthority> forRoles(Collection<Role> roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= bit(role.getName());
+        }
+        return COMBINATIONS[mask];
+    }
+
+    // Claim "roles" do JWT; um nome fora do enum (token de outra versão) cai na construção avulsa
+    public static List<GrantedAuthority> forRoleNames(List<String> roleNames) {
+        int mask = 0;
+        for (int i = 0; i < roleNames.size(); i++) {
+            Role.RoleName name = BY_NAME.get(roleNames.get(i));
+            if (name == null) {
+                return roleNames.stream()
+                        .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(ROLE_PREFIX + role))
+                        .toList();
+            }
+            mask |= bit(name);
+        }
+        return COMBINATIONS[mask];
+    }
+
+    private static int bit(Role.RoleName name) {
+        return 1 << name.ordinal();
+    }
+}
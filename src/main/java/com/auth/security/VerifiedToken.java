@@ -0,0 +1,60 @@
+package com.auth.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static com.auth.service.JwtService.CLAIM_ROLES;
+import static com.auth.service.JwtService.CLAIM_SECURITY_VERSION;
+import static com.auth.service.JwtService.CLAIM_USER_ID;
+
+/**
+ * Resultado imutável de um JWT com assinatura e expiração já verificadas.
+ * Cada token é decodificado uma única vez por requisição e este objeto é reutilizado
+ * por todas as checagens seguintes.
+ */
+public record VerifiedToken(
+    String subject,
+    String tokenId,
+    Long userId,
+    List<String> roles,
+    Long securityVersion,
+    Date issuedAt,
+    Date expiration,
+    Claims claims
+) {
+
+    public static VerifiedToken from(Claims claims) {
+        List<?> roleClaim = claims.get(CLAIM_ROLES, List.class);
+        List<String> roles = roleClaim == null ? null : roleClaim.stream().map(String::valueOf).toList();
+        return new VerifiedToken(
+            claims.getSubject(),
+            claims.getId(),
+            claims.get(CLAIM_USER_ID, Long.class),
+            roles,
+            claims.get(CLAIM_SECURITY_VERSION, Long.class),
+            claims.getIssuedAt(),
+            claims.getExpiration(),
+            claims
+        );
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    public boolean belongsTo(UserDetails userDetails) {
+        return subject != null && subject.equals(userDetails.getUsername());
+    }
+
+    // Vazio quando o token não carrega as claims de usuário (tokens emitidos antes do modo stateless)
+    public Optional<JwtPrincipal> toPrincipal() {
+        if (userId == null || roles == null || securityVersion == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new JwtPrincipal(userId, subject, RoleAuthorities.forRoleNames(roles), securityVersion));
+    }
+}
@@ -0,0 +1,100 @@
+package com.auth.security;
+
+import com.auth.service.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+/**
+ * Cache limitado de tokens já verificados, na frente do {@link JwtService}.
+ * <p>
+ * A chave é o SHA-256 do token (32 bytes em quatro longs), de modo que o token em si não
+ * fica retido na memória. Cada entrada expira no {@code exp} do próprio token, então uma
+ * requisição repetida nunca recebe um resultado além da validade original. Tokens inválidos
+ * não são cacheados: a exceção do parser é propagada a cada tentativa.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    // Atributo da requisição com o resultado já obtido por um filtro anterior (RateLimitFilter), para que
+    // o JwtAuthenticationFilter não calcule o SHA-256 do mesmo token de novo
+    public static final String REQUEST_ATTRIBUTE = VerifiedTokenCache.class.getName() + ".VERIFIED_TOKEN";
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final Cache<TokenDigest, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              @Value("${app.jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${app.jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((TokenDigest key, VerifiedToken token) -> remainingLifetime(token)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna o resultado verificado do token, consultando o {@link JwtService} apenas em caso de miss.
+     *
+     * @throws io.jsonwebtoken.JwtException se o token for inválido, corrompido ou expirado
+     */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return jwtService.verify(token);
+        }
+        return cache.get(TokenDigest.of(token), key -> jwtService.verify(token));
+    }
+
+    // Resultado já verificado, sem verificar em caso de miss; null quando ausente ou com o cache desligado
+    public VerifiedToken peek(String token) {
+        return enabled ? cache.getIfPresent(TokenDigest.of(token)) : null;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(TokenDigest.of(token));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static Duration remainingLifetime(VerifiedToken token) {
+        if (token.expiration() == null) {
+            return Duration.ZERO;
+        }
+        long remaining = token.expiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, remaining));
+    }
+
+    record TokenDigest(long h0, long h1, long h2, long h3) {
+
+        static TokenDigest of(String token) {
+            ByteBuffer digest = ByteBuffer.wrap(sha256().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+            }
+        }
+    }
+}
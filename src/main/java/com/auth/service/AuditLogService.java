@@ -0,0 +1,245 @@
+package com.auth.service;
+
+import com.auth.entity.AuditEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trilha de auditoria assíncrona: quem chama apenas enfileira o evento, e uma thread própria grava os
+ * eventos em lote (INSERT em batch JDBC) na tabela {@code auth_audit_events}.
+ * <p>
+ * A fila é uma {@link ConcurrentLinkedQueue} (sem lock) limitada por um contador atômico a
+ * {@code queue-capacity} eventos. Política de descarte: com a fila cheia o evento novo é descartado e
+ * contado em {@code auth.audit.dropped{reason=queue_full}}; o login nunca espera pela auditoria. Um
+ * lote que falha ao gravar também é descartado ({@code reason=write_error}), para que uma indisponibilidade
+ * do banco não acumule eventos sem limite; se o banco recusar alguma linha do lote, ele é regravado
+ * linha a linha e só as recusadas são descartadas. Eventos registrados dentro de uma transação só entram na
+ * fila após o commit.
+ */
+@Service
+public class AuditLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogService.class);
+
+    private static final String INSERT_EVENT = "INSERT INTO auth_audit_events "
+            + "(occurred_at, event_type, actor, user_id, client_address, detail) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String CREATE_PARTITION = "SELECT create_auth_audit_events_partition(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final boolean partitionMaintenance;
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter written;
+    private final Counter droppedQueueFull;
+    private final Counter droppedWriteError;
+    private final Timer lag;
+    private ScheduledExecutorService writer;
+
+    public AuditLogService(JdbcTemplate jdbcTemplate,
+                           @Value("${app.audit.enabled:true}") boolean enabled,
+                           @Value("${app.audit.queue-capacity:10000}") int capacity,
+                           @Value("${app.audit.batch-size:500}") int batchSize,
+                           @Value("${app.audit.flush-interval:1s}") Duration flushInterval,
+                           @Value("${app.audit.partition-maintenance:true}") boolean partitionMaintenance,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.partitionMaintenance = partitionMaintenance;
+        this.written = Counter.builder("auth.audit.written")
+                .description("Eventos de auditoria gravados")
+                .register(meterRegistry);
+        this.droppedQueueFull = droppedCounter(meterRegistry, "queue_full");
+        this.droppedWriteError = droppedCounter(meterRegistry, "write_error");
+        this.lag = Timer.builder("auth.audit.lag")
+                .description("Tempo entre o evento e a gravação do lote que o contém")
+                .register(meterRegistry);
+        Gauge.builder("auth.audit.queue.size", size, AtomicInteger::get)
+                .description("Eventos de auditoria aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.audit.dropped")
+                .tag("reason", reason)
+                .description("Eventos de auditoria descartados")
+                .register(meterRegistry);
+    }
+
+    // Thread de plataforma dedicada: o INSERT não ocupa o agendador compartilhado dos @Scheduled
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("audit-writer").daemon().factory());
+        long intervalMillis = flushInterval.toMillis();
+        writer.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Grava o que ainda estiver na fila antes de o pool de conexões ser fechado
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Audit writer did not stop in time; {} events pending", size.get());
+            return;
+        }
+        drain();
+    }
+
+    public void record(AuditEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    public int pending() {
+        return size.get();
+    }
+
+    // Grava a fila em lotes de até batch-size eventos, até esvaziá-la
+    void drain() {
+        List<AuditEvent> batch = new ArrayList<>(Math.min(batchSize, Math.max(size.get(), 1)));
+        while (true) {
+            AuditEvent event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                size.decrementAndGet();
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // Diariamente (e na subida) garante a partição do mês seguinte; eventos sem partição mensal caem na
+    // partição DEFAULT
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.audit.partition-cron:0 0 3 * * *}")
+    public void createNextPartition() {
+        if (!enabled || !partitionMaintenance) {
+            return;
+        }
+        try {
+            jdbcTemplate.queryForList(CREATE_PARTITION, LocalDate.now().plusMonths(1));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to create next audit partition: {}", e.getMessage());
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            droppedQueueFull.increment();
+            return;
+        }
+        queue.offer(event);
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            insert(batch);
+            written.increment(batch.size());
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Audit batch rejected, retrying {} events individually: {}", batch.size(), e.getMessage());
+            int rejected = 0;
+            for (AuditEvent event : batch) {
+                try {
+                    insert(List.of(event));
+                    written.increment();
+                } catch (RuntimeException single) {
+                    rejected++;
+                    droppedWriteError.increment();
+                    logger.debug("Audit event rejected by the database: {}", single.getMessage());
+                }
+            }
+            if (rejected > 0) {
+                logger.warn("Dropped {} audit events rejected by the database", rejected);
+            }
+        } catch (RuntimeException e) {
+            droppedWriteError.increment(batch.size());
+            logger.warn("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+            return;
+        }
+        // A fila é FIFO: o primeiro evento do lote é (aproximadamente) o mais antigo
+        lag.record(Duration.between(batch.get(0).getOccurredAt(), LocalDateTime.now()));
+    }
+
+    private void insert(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                AuditEvent event = events.get(i);
+                statement.setTimestamp(1, Timestamp.valueOf(event.getOccurredAt()));
+                statement.setString(2, event.getType().name());
+                statement.setString(3, event.getActor());
+                if (event.getUserId() != null) {
+                    statement.setLong(4, event.getUserId());
+                } else {
+                    statement.setNull(4, Types.BIGINT);
+                }
+                statement.setString(5, event.getClientAddress());
+                statement.setString(6, event.getDetail());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+}
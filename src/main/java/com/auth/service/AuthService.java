@@ -2,16 +2,26 @@ package com.auth.service;
 
 import com.auth.dto.AuthDTO;
 import com.auth.dto.LoginDTO;
+import com.auth.dto.RefreshTokenDTO;
 import com.auth.dto.RegisterDTO;
+import com.auth.entity.AuditEvent;
 import com.auth.entity.Role;
 import com.auth.entity.User;
 import com.auth.exception.EmailAlreadyExistsException;
 import com.auth.exception.InvalidCredentialsException;
+import com.auth.exception.LoginBlockedException;
+import com.auth.exception.PasswordHashingUnavailableException;
 import com.auth.exception.RoleNotFoundException;
 import com.auth.mapper.AuthMapper;
 import com.auth.mapper.UserMapper;
-import com.auth.repository.RoleRepository;
 import com.auth.repository.UserRepository;
+import com.auth.security.JwtPrincipal;
+import com.auth.security.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -24,56 +34,110 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptService loginAttemptService;
+    private final AuditLogService auditLogService;
+    private final ReadYourWrites readYourWrites;
+    private final Map<LoginOutcome, Counter> loginCounters = new EnumMap<>(LoginOutcome.class);
 
     public AuthService(UserRepository userRepository, 
-                      RoleRepository roleRepository,
+                      RoleRegistry roleRegistry,
                       PasswordEncoder passwordEncoder,
                       JwtService jwtService,
-                      AuthenticationManager authenticationManager) {
+                      AuthenticationManager authenticationManager,
+                      RefreshTokenService refreshTokenService,
+                      TokenRevocationService tokenRevocationService,
+                      LoginAttemptService loginAttemptService,
+                      AuditLogService auditLogService,
+                      ReadYourWrites readYourWrites,
+                      MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginAttemptService = loginAttemptService;
+        this.auditLogService = auditLogService;
+        this.readYourWrites = readYourWrites;
+        for (LoginOutcome outcome : LoginOutcome.values()) {
+            loginCounters.put(outcome, Counter.builder("auth.login")
+                    .tag("outcome", outcome.tag)
+                    .description("Tentativas de login por resultado")
+                    .register(meterRegistry));
+        }
     }
     
+    // Valores fixos da tag outcome de auth.login; o email nunca vira tag
+    enum LoginOutcome {
+        SUCCESS, BAD_CREDENTIALS, ACCOUNT_STATUS, BLOCKED, OVERLOADED, ERROR;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+    
+    // Sem pré-checagem com existsByEmail: a constraint UNIQUE de users.email decide, o que elimina uma
+    // ida ao banco e a corrida check-then-act entre registros simultâneos do mesmo email
     @Transactional
     public AuthDTO register(RegisterDTO request) {
-        if (userRepository.existsByEmail(request.email())) {
-            throw new EmailAlreadyExistsException("Este email já está em uso");
-        }
-        
         // Create new user using MapStruct
         User user = UserMapper.INSTANCE.toEntity(request);
         user.setPassword(passwordEncoder.encode(request.password()));
+        user.setRoles(Set.of(getDefaultRole()));
         
-        // Set default role
-        Role defaultRole = roleRepository.findByName(Role.RoleName.DEFAULT)
-                .orElseThrow(() -> new RoleNotFoundException("Função padrão não encontrada"));
-        user.setRoles(Set.of(defaultRole));
-        
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            // flush imediato para que o conflito de email apareça aqui, e não no commit
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            throw new EmailAlreadyExistsException("Este email já está em uso", e);
+        }
+        // O login que costuma vir logo em seguida lê o usuário do primário
+        readYourWrites.recordWrite(savedUser);
         
-        // Generate JWT token
-        String token = jwtService.generateToken(savedUser);
-        Date expirationDate = jwtService.getExpirationDate();
-        LocalDateTime expiresAt = expirationDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
-
-        return AuthMapper.INSTANCE.toAuthDTO(savedUser, token, expiresAt);
+        return buildAuthResponse(savedUser, refreshTokenService.issue(savedUser));
+    }
+    
+    // A instância vem do registro em memória e só contribui com o id para o INSERT em user_roles
+    private Role getDefaultRole() {
+        return roleRegistry.find(Role.RoleName.DEFAULT)
+                .orElseThrow(() -> new RoleNotFoundException("Função padrão não encontrada"));
     }
     
-    @Transactional(readOnly = true)
-    public AuthDTO login(LoginDTO request) {
+    // Um usuário novo só pode violar a UNIQUE de email: o id vem da sequence e a linha de user_roles é nova
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+    }
+    
+    // Sem transação própria: o BCrypt leva ~100 ms e não deve segurar uma conexão do pool; a busca do
+    // usuário e a eventual regravação do hash (UserService.updatePassword) abrem suas próprias transações.
+    // Conta ou origem bloqueada por excesso de falhas é recusada antes de qualquer consulta ou BCrypt
+    public AuthDTO login(LoginDTO request, String clientAddress) {
+        try {
+            loginAttemptService.checkAllowed(request.email(), clientAddress);
+        } catch (LoginBlockedException e) {
+            loginCounters.get(LoginOutcome.BLOCKED).increment();
+            audit(AuditEvent.Type.LOGIN_BLOCKED, request, null, clientAddress, LoginOutcome.BLOCKED);
+            throw e;
+        }
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -85,16 +149,58 @@ public class AuthService {
             SecurityContextHolder.getContext().setAuthentication(authentication);
             
             User user = (User) authentication.getPrincipal();
-            String token = jwtService.generateToken(user);
-            Date expirationDate = jwtService.getExpirationDate();
-            LocalDateTime expiresAt = expirationDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
-
-            return AuthMapper.INSTANCE.toAuthDTO(user, token, expiresAt);
+            AuthDTO response = buildAuthResponse(user, refreshTokenService.issue(user));
+            loginAttemptService.recordSuccess(request.email());
+            loginCounters.get(LoginOutcome.SUCCESS).increment();
+            audit(AuditEvent.Type.LOGIN_SUCCESS, request, user.getId(), clientAddress, LoginOutcome.SUCCESS);
+            return response;
         } catch (BadCredentialsException e) {
+            loginAttemptService.recordFailure(request.email(), clientAddress);
+            loginCounters.get(LoginOutcome.BAD_CREDENTIALS).increment();
+            audit(AuditEvent.Type.LOGIN_FAILURE, request, null, clientAddress, LoginOutcome.BAD_CREDENTIALS);
             throw new InvalidCredentialsException("Credenciais inválidas");
+        } catch (AccountStatusException e) {
+            loginCounters.get(LoginOutcome.ACCOUNT_STATUS).increment();
+            audit(AuditEvent.Type.LOGIN_FAILURE, request, null, clientAddress, LoginOutcome.ACCOUNT_STATUS);
+            throw e;
+        } catch (PasswordHashingUnavailableException e) {
+            loginCounters.get(LoginOutcome.OVERLOADED).increment();
+            throw e;
+        } catch (RuntimeException e) {
+            loginCounters.get(LoginOutcome.ERROR).increment();
+            throw e;
+        }
+    }
+    
+    // Só enfileira: a gravação é feita em lote pelo AuditLogService, fora do caminho do login
+    private void audit(AuditEvent.Type type, LoginDTO request, Long userId, String clientAddress, LoginOutcome outcome) {
+        auditLogService.record(AuditEvent.login(type, request.email(), userId, clientAddress, outcome.tag));
+    }
+    
+    // Troca um refresh token válido por um novo par de tokens, sem AuthenticationManager nem BCrypt
+    public AuthDTO refresh(RefreshTokenDTO request) {
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(request.refreshToken());
+        return buildAuthResponse(rotated.user(), rotated.refreshToken());
+    }
+    
+    // Revoga o access token apresentado e, se informado, a cadeia do refresh token da mesma sessão
+    public void logout(String token, String refreshToken) {
+        VerifiedToken verifiedToken = jwtService.verify(token);
+        tokenRevocationService.revokeToken(verifiedToken);
+        if (refreshToken != null && !refreshToken.isBlank() && verifiedToken.userId() != null) {
+            refreshTokenService.revokeFamily(refreshToken, verifiedToken.userId());
         }
     }
     
+    private AuthDTO buildAuthResponse(User user, String refreshToken) {
+        // Generate JWT token
+        String token = jwtService.generateToken(user);
+        Date expirationDate = jwtService.getExpirationDate();
+        LocalDateTime expiresAt = expirationDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+
+        return AuthMapper.INSTANCE.toAuthDTO(user, token, expiresAt, refreshToken);
+    }
+    
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof User user) {
@@ -102,4 +208,12 @@ public class AuthService {
         }
         return null;
     }
+    
+    public JwtPrincipal getCurrentTokenPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
 }
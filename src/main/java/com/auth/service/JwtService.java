@@ -1,28 +1,85 @@
 package com.auth.service;
 
+import com.auth.entity.User;
+import com.auth.security.JwtPrincipal;
+import com.auth.security.JwtSigningKeys;
+import com.auth.security.VerifiedToken;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     
-    @Value("${app.jwt.secret}")
-    private String secret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
     
-    @Value("${app.jwt.expiration}")
-    private Long expiration;
+    private final long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Chaves e parser derivados uma única vez; o JwtParser é imutável e thread-safe
+    private final JwtSigningKeys signingKeys;
+    private final JwtParser parser;
+    
+    // auth.jwt{operation=sign|verify, outcome=...}: outcome só assume valores fixos, nunca dados do token
+    private final Timer signTimer;
+    private final Timer verifyValidTimer;
+    private final Timer verifyExpiredTimer;
+    private final Timer verifyInvalidTimer;
+    
+    @Autowired
+    public JwtService(JwtSigningKeys signingKeys,
+                      @Value("${app.jwt.expiration}") long expiration,
+                      MeterRegistry meterRegistry) {
+        this.expiration = expiration;
+        this.signingKeys = signingKeys;
+        this.parser = signingKeys.getActiveKeyId() == null
+                ? Jwts.parser().verifyWith((SecretKey) signingKeys.getSigningKey()).build()
+                : Jwts.parser().keyLocator(new KeyIdLocator(signingKeys)).build();
+        this.signTimer = jwtTimer(meterRegistry, "sign", "success");
+        this.verifyValidTimer = jwtTimer(meterRegistry, "verify", "valid");
+        this.verifyExpiredTimer = jwtTimer(meterRegistry, "verify", "expired");
+        this.verifyInvalidTimer = jwtTimer(meterRegistry, "verify", "invalid");
+    }
+    
+    public JwtService(JwtSigningKeys signingKeys, long expiration) {
+        this(signingKeys, expiration, new SimpleMeterRegistry());
+    }
+    
+    public JwtService(String secret, long expiration) {
+        this(JwtSigningKeys.hmac(secret), expiration);
+    }
+    
+    private static Timer jwtTimer(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Timer.builder("auth.jwt")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description("Tempo de assinatura e verificação de JWT")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Verifica assinatura e expiração e decodifica as claims uma única vez.
+     *
+     * @throws JwtException se o token for inválido, corrompido ou expirado
+     */
+    public VerifiedToken verify(String token) {
+        return VerifiedToken.from(extractAllClaims(token));
     }
     
     public String extractUsername(String token) {
@@ -39,19 +96,27 @@ public class JwtService {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        long start = System.nanoTime();
+        Timer timer = verifyInvalidTimer;
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            timer = verifyValidTimer;
+            return claims;
+        } catch (ExpiredJwtException e) {
+            timer = verifyExpiredTimer;
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLES, user.getRoles().stream().map(role -> role.getName().name()).toList());
+            claims.put(CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        }
         return createToken(claims, userDetails.getUsername());
     }
     
@@ -60,33 +125,69 @@ public class JwtService {
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        long start = System.nanoTime();
+        try {
+            return buildToken(claims, subject);
+        } finally {
+            signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private String buildToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration));
+        if (signingKeys.getActiveKeyId() == null) {
+            return builder.signWith(signingKeys.getSigningKey()).compact();
+        }
+        return builder.header().keyId(signingKeys.getActiveKeyId()).and()
+                .signWith(signingKeys.getSigningKey(), signingKeys.getSignatureAlgorithm())
                 .compact();
     }
     
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken.belongsTo(userDetails) && !verifiedToken.isExpired();
     }
     
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
+            extractAllClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
     
+    // Reconstrói o principal a partir das claims, sem acessar o banco; vazio para tokens sem as claims de usuário
+    public Optional<JwtPrincipal> extractPrincipal(String token) {
+        return verify(token).toPrincipal();
+    }
+    
     public Date getExpirationDate() {
         return new Date(System.currentTimeMillis() + expiration);
     }
+    
+    // Seleciona a chave pública pelo kid do header; tokens sem kid ou com kid desconhecido são rejeitados
+    private static final class KeyIdLocator extends LocatorAdapter<Key> {
+        
+        private final JwtSigningKeys signingKeys;
+        
+        private KeyIdLocator(JwtSigningKeys signingKeys) {
+            this.signingKeys = signingKeys;
+        }
+        
+        @Override
+        protected Key locate(JwsHeader header) {
+            Key key = signingKeys.getVerificationKey(header.getKeyId());
+            if (key == null) {
+                throw new UnsupportedJwtException("Chave de assinatura desconhecida: " + header.getKeyId());
+            }
+            return key;
+        }
+    }
 }
@@ -0,0 +1,345 @@
+package com.auth.service;
+
+import com.auth.entity.LoginLockout;
+import com.auth.entity.User;
+import com.auth.exception.LoginBlockedException;
+import com.auth.repository.LoginLockoutRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proteção contra força bruta no login, por conta (email) e por origem (endereço do cliente).
+ * <p>
+ * As falhas são contadas em memória, em janela deslizante aproximada (janela atual + fração da
+ * anterior), dentro de um mapa Caffeine limitado a {@code max-keys} chaves; cada atualização é um
+ * {@code compute} atômico por chave, sem lock global. Ao atingir o limite a chave é bloqueada por
+ * {@code lockout.base}, dobrando a cada novo bloqueio até {@code lockout.max}.
+ * <p>
+ * {@link #checkAllowed} roda antes do AuthenticationManager: uma tentativa bloqueada custa duas
+ * buscas em hash e nunca chega ao BCrypt nem ao banco. Apenas os bloqueios são persistidos, em
+ * write-behind ({@link #flush()} periódico e no shutdown, um upsert em batch JDBC), e recarregados na
+ * subida. As chaves guardam o SHA-256 do email ou do endereço, então têm tamanho fixo e a tabela não
+ * armazena emails em claro.
+ */
+@Service
+public class LoginAttemptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    private static final String ACCOUNT_PREFIX = "account:";
+    private static final String SOURCE_PREFIX = "source:";
+    // Upsert em vez de saveAll: com id atribuído o Spring Data trata toda entidade como existente e faz
+    // merge (um SELECT e um INSERT/UPDATE por linha); aqui o lote inteiro é um único batch
+    private static final String UPSERT_LOCKOUT = "INSERT INTO login_lockouts (throttle_key, lockouts, locked_until, updated_at) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT (throttle_key) DO UPDATE SET lockouts = EXCLUDED.lockouts, "
+            + "locked_until = EXCLUDED.locked_until, updated_at = EXCLUDED.updated_at";
+
+    private final LoginLockoutRepository loginLockoutRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int accountMaxFailures;
+    private final int sourceMaxFailures;
+    private final long windowMillis;
+    private final long lockoutBaseMillis;
+    private final long lockoutMaxMillis;
+    private final Clock clock;
+    private final Cache<String, AttemptState> attempts;
+    // Bloqueios ainda não gravados; a chave guarda apenas o estado mais recente
+    private final Map<String, AttemptState> pendingLockouts = new ConcurrentHashMap<>();
+    private final Counter accountLockouts;
+    private final Counter sourceLockouts;
+
+    @Autowired
+    public LoginAttemptService(LoginLockoutRepository loginLockoutRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${app.login-throttle.enabled:true}") boolean enabled,
+                               @Value("${app.login-throttle.account.max-failures:5}") int accountMaxFailures,
+                               @Value("${app.login-throttle.source.max-failures:50}") int sourceMaxFailures,
+                               @Value("${app.login-throttle.window:15m}") Duration window,
+                               @Value("${app.login-throttle.lockout.base:1m}") Duration lockoutBase,
+                               @Value("${app.login-throttle.lockout.max:1h}") Duration lockoutMax,
+                               @Value("${app.login-throttle.max-keys:100000}") long maxKeys,
+                               MeterRegistry meterRegistry) {
+        this(loginLockoutRepository, jdbcTemplate, enabled, accountMaxFailures, sourceMaxFailures, window, lockoutBase,
+                lockoutMax, maxKeys, meterRegistry, Clock.systemUTC());
+    }
+
+    LoginAttemptService(LoginLockoutRepository loginLockoutRepository, JdbcTemplate jdbcTemplate, boolean enabled,
+                        int accountMaxFailures, int sourceMaxFailures, Duration window, Duration lockoutBase, Duration lockoutMax,
+                        long maxKeys, MeterRegistry meterRegistry, Clock clock) {
+        this.loginLockoutRepository = loginLockoutRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.accountMaxFailures = accountMaxFailures;
+        this.sourceMaxFailures = sourceMaxFailures;
+        this.windowMillis = window.toMillis();
+        this.lockoutBaseMillis = lockoutBase.toMillis();
+        this.lockoutMaxMillis = lockoutMax.toMillis();
+        this.clock = clock;
+        // Sem escrita por janela + bloqueio máximo a chave não tem mais falhas nem bloqueio relevantes
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(window.plus(lockoutMax))
+                .build();
+        this.accountLockouts = lockoutCounter(meterRegistry, "account");
+        this.sourceLockouts = lockoutCounter(meterRegistry, "source");
+    }
+
+    private static Counter lockoutCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.login.lockouts")
+                .tag("scope", scope)
+                .description("Bloqueios de login por excesso de falhas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Estado imutável de uma chave: contagens da janela atual e da anterior, quantos bloqueios já
+     * recebeu e até quando está bloqueada (epoch millis, 0 quando livre).
+     */
+    record AttemptState(long windowStart, int previousCount, int currentCount, int lockouts, long lockedUntil) {
+
+        boolean isLocked(long now) {
+            return lockedUntil > now;
+        }
+    }
+
+    // Lança LoginBlockedException se a conta ou a origem estiver bloqueada; não altera nenhum estado
+    public void checkAllowed(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        long lockedUntil = Math.max(lockedUntil(accountKey(email), now), lockedUntil(sourceKey(clientAddress), now));
+        if (lockedUntil > now) {
+            long retryAfterSeconds = Math.max(1, (lockedUntil - now + 999) / 1000);
+            throw new LoginBlockedException("Muitas tentativas de login, tente novamente em "
+                    + retryAfterSeconds + " segundos", retryAfterSeconds);
+        }
+    }
+
+    public void recordFailure(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        recordFailure(accountKey(email), accountMaxFailures, accountLockouts, now);
+        recordFailure(sourceKey(clientAddress), sourceMaxFailures, sourceLockouts, now);
+    }
+
+    // Login bem-sucedido zera a conta; a origem não, para que acertar uma conta não libere quem testa várias
+    public void recordSuccess(String email) {
+        if (!enabled) {
+            return;
+        }
+        String key = accountKey(email);
+        if (key != null) {
+            attempts.invalidate(key);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLockouts() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long now = clock.millis();
+            List<LoginLockout> active = loginLockoutRepository.findActive(toLocalDateTime(now));
+            for (LoginLockout lockout : active) {
+                long lockedUntil = lockout.getLockedUntil().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                attempts.asMap().merge(lockout.getThrottleKey(),
+                        new AttemptState(now, 0, 0, lockout.getLockouts(), lockedUntil),
+                        (current, restored) -> current.lockedUntil() >= restored.lockedUntil() ? current : restored);
+            }
+            logger.info("Loaded {} active login lockouts", active.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load login lockouts: {}", e.getMessage());
+        }
+    }
+
+    // Write-behind: grava os bloqueios pendentes em um único batch. Se o banco recusar alguma linha o
+    // lote é refeito linha a linha e só a recusada é descartada; em falha transitória as linhas voltam
+    // para a fila, sem sobrescrever um bloqueio mais novo da mesma chave
+    @Scheduled(fixedDelayString = "${app.login-throttle.flush-interval:5s}")
+    @PreDestroy
+    public void flush() {
+        if (pendingLockouts.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, AttemptState>> lockouts = new ArrayList<>();
+        for (Map.Entry<String, AttemptState> entry : pendingLockouts.entrySet()) {
+            if (pendingLockouts.remove(entry.getKey(), entry.getValue())) {
+                lockouts.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        Timestamp now = Timestamp.valueOf(toLocalDateTime(clock.millis()));
+        try {
+            upsert(lockouts, now);
+            logger.debug("Persisted {} login lockouts", lockouts.size());
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Login lockout batch rejected, retrying rows individually: {}", e.getMessage());
+            for (int i = 0; i < lockouts.size(); i++) {
+                try {
+                    upsert(List.of(lockouts.get(i)), now);
+                } catch (DataIntegrityViolationException rejected) {
+                    logger.warn("Dropping login lockout rejected by the database: {}", rejected.getMessage());
+                } catch (RuntimeException failed) {
+                    requeue(lockouts.subList(i, lockouts.size()), failed);
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            requeue(lockouts, e);
+        }
+    }
+
+    private void upsert(List<Map.Entry<String, AttemptState>> lockouts, Timestamp now) {
+        jdbcTemplate.batchUpdate(UPSERT_LOCKOUT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Map.Entry<String, AttemptState> lockout = lockouts.get(i);
+                statement.setString(1, lockout.getKey());
+                statement.setInt(2, lockout.getValue().lockouts());
+                statement.setTimestamp(3, Timestamp.valueOf(toLocalDateTime(lockout.getValue().lockedUntil())));
+                statement.setTimestamp(4, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lockouts.size();
+            }
+        });
+    }
+
+    private void requeue(List<Map.Entry<String, AttemptState>> lockouts, RuntimeException cause) {
+        lockouts.forEach(lockout -> pendingLockouts.putIfAbsent(lockout.getKey(), lockout.getValue()));
+        logger.warn("Failed to persist {} login lockouts: {}", lockouts.size(), cause.getMessage());
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-throttle.purge-interval:1h}",
+               initialDelayString = "${app.login-throttle.purge-interval:1h}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = loginLockoutRepository.deleteExpired(toLocalDateTime(clock.millis()));
+        if (removed > 0) {
+            logger.info("Purged {} expired login lockouts", removed);
+        }
+    }
+
+    int pendingCount() {
+        return pendingLockouts.size();
+    }
+
+    private long lockedUntil(String key, long now) {
+        if (key == null) {
+            return 0;
+        }
+        AttemptState state = attempts.getIfPresent(key);
+        return state != null && state.isLocked(now) ? state.lockedUntil() : 0;
+    }
+
+    private void recordFailure(String key, int maxFailures, Counter lockoutCounter, long now) {
+        if (key == null) {
+            return;
+        }
+        AttemptState[] previous = new AttemptState[1];
+        AttemptState updated = attempts.asMap().compute(key, (k, current) -> {
+            previous[0] = current;
+            return nextState(current, maxFailures, now);
+        });
+        // Só a transição para bloqueado é gravada e contada; falhas que chegam com a chave já bloqueada não
+        if (updated.isLocked(now) && (previous[0] == null || !previous[0].isLocked(now))) {
+            pendingLockouts.put(key, updated);
+            lockoutCounter.increment();
+        }
+    }
+
+    private AttemptState nextState(AttemptState current, int maxFailures, long now) {
+        if (current == null) {
+            current = new AttemptState(now, 0, 0, 0, 0);
+        } else if (current.isLocked(now)) {
+            // Falhas durante o bloqueio não chegam ao BCrypt e não prolongam o bloqueio
+            return current;
+        }
+        long windowStart = current.windowStart();
+        int previous = current.previousCount();
+        int count = current.currentCount();
+        long elapsedWindows = (now - windowStart) / windowMillis;
+        if (elapsedWindows == 1) {
+            previous = count;
+            count = 0;
+            windowStart += windowMillis;
+        } else if (elapsedWindows > 1) {
+            previous = 0;
+            count = 0;
+            windowStart += elapsedWindows * windowMillis;
+        }
+        count++;
+        double elapsedFraction = (double) (now - windowStart) / windowMillis;
+        double estimate = previous * (1 - elapsedFraction) + count;
+        if (estimate < maxFailures) {
+            return new AttemptState(windowStart, previous, count, current.lockouts(), current.lockedUntil());
+        }
+        int lockouts = current.lockouts() + 1;
+        return new AttemptState(now, 0, 0, lockouts, now + lockoutDuration(lockouts));
+    }
+
+    // base * 2^(n-1), limitado a lockout.max (o deslocamento é limitado para não estourar o long)
+    private long lockoutDuration(int lockouts) {
+        int shift = Math.min(lockouts - 1, 30);
+        return Math.min(lockoutBaseMillis << shift, lockoutMaxMillis);
+    }
+
+    static String accountKey(String email) {
+        return email == null || email.isBlank() ? null : ACCOUNT_PREFIX + sha256(User.normalizeEmail(email));
+    }
+
+    static String sourceKey(String clientAddress) {
+        return clientAddress == null || clientAddress.isBlank() ? null : SOURCE_PREFIX + sha256(clientAddress);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
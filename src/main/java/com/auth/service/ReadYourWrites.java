@@ -0,0 +1,102 @@
+package com.auth.service;
+
+import com.auth.config.ReplicaRoutingDataSource;
+import com.auth.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes sobre as réplicas de leitura: depois de uma escrita em um usuário (registro, roles,
+ * encerramento de sessões), as leituras desse usuário vão para o primário por {@code max-lag +
+ * health-check-interval}. Passado esse tempo, qualquer réplica elegível já recebeu a escrita, pois
+ * réplicas com atraso maior ficam fora do rodízio.
+ * <p>
+ * As escritas são lembradas por email e por id, em memória e por instância. Para o caso em que outra
+ * instância fez a escrita, {@link #findUser} repete no primário a busca que não encontrou o usuário na
+ * réplica. Sem réplicas configuradas todos os métodos apenas executam a consulta.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final String ID_PREFIX = "id:";
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(@Value("${app.datasource.replicas.enabled:false}") boolean enabled,
+                          @Value("${app.datasource.replicas.max-lag:5s}") Duration maxLag,
+                          @Value("${app.datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+                          @Value("${app.datasource.replicas.read-your-writes.max-keys:100000}") long maxKeys) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(maxLag.plus(healthCheckInterval))
+                .build();
+    }
+
+    // A janela começa no commit: antes dele a escrita não existe nem no primário
+    public void recordWrite(User user) {
+        if (!enabled) {
+            return;
+        }
+        String email = user.getEmail();
+        Long id = user.getId();
+        Runnable record = () -> {
+            if (email != null) {
+                recentWrites.put(email, Boolean.TRUE);
+            }
+            if (id != null) {
+                recentWrites.put(ID_PREFIX + id, Boolean.TRUE);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    // Emails são canônicos e sempre têm '@'; ids vão prefixados: as chaves não colidem
+    public <T> T read(String email, Supplier<T> query) {
+        return isRecent(email) ? ReplicaRoutingDataSource.usePrimary(query) : query.get();
+    }
+
+    public <T> T read(Long id, Supplier<T> query) {
+        return id != null && isRecent(ID_PREFIX + id) ? ReplicaRoutingDataSource.usePrimary(query) : query.get();
+    }
+
+    /**
+     * Busca do usuário na autenticação: como {@link #read(String, Supplier)}, mas um resultado vazio da
+     * réplica é confirmado no primário, para que o login logo após um registro feito em outra instância
+     * não falhe por atraso de replicação.
+     */
+    public <T> Optional<T> findUser(String email, Supplier<Optional<T>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        if (isRecent(email)) {
+            return ReplicaRoutingDataSource.usePrimary(query);
+        }
+        Optional<T> result = query.get();
+        return result.isPresent() ? result : ReplicaRoutingDataSource.usePrimary(query);
+    }
+
+    // A fixação no primário só afeta conexões obtidas dentro da consulta: a transação readOnly que a
+    // envolve não pode ter executado nada antes
+    private boolean isRecent(String key) {
+        return enabled && key != null && recentWrites.getIfPresent(key) != null;
+    }
+}
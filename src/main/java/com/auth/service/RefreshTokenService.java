@@ -0,0 +1,102 @@
+package com.auth.service;
+
+import com.auth.entity.RefreshToken;
+import com.auth.entity.User;
+import com.auth.exception.InvalidRefreshTokenException;
+import com.auth.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Emissão e rotação de refresh tokens opacos.
+ * <p>
+ * O token entregue ao cliente são 256 bits aleatórios; no banco fica apenas o SHA-256, então a
+ * renovação é uma busca indexada sem BCrypt. Cada uso gera um novo token na mesma família e invalida
+ * o anterior; apresentar um token já usado revoga a família inteira (detecção de reuso).
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+    private static final String INVALID_TOKEN_MESSAGE = "Refresh token inválido ou expirado";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.jwt.refresh-expiration}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public record RotatedRefreshToken(User user, String refreshToken) {}
+
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    // Reuso detectado precisa revogar a família mesmo lançando exceção, por isso noRollbackFor
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public RotatedRefreshToken rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_TOKEN_MESSAGE));
+
+        if (current.isRevoked() || refreshTokenRepository.markUsed(current.getId(), LocalDateTime.now()) == 0) {
+            logger.warn("Refresh token reuse detected for user id {}; revoking token family", current.getUser().getId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), LocalDateTime.now());
+            throw new InvalidRefreshTokenException(INVALID_TOKEN_MESSAGE);
+        }
+        if (current.isExpired()) {
+            throw new InvalidRefreshTokenException(INVALID_TOKEN_MESSAGE);
+        }
+
+        String next = issue(current.getUser(), current.getFamilyId());
+        return new RotatedRefreshToken(current.getUser(), next);
+    }
+
+    // Logout: encerra a cadeia do refresh token apresentado, desde que pertença ao usuário autenticado
+    @Transactional
+    public void revokeFamily(String rawToken, Long userId) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .filter(token -> token.getUser().getId().equals(userId))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    private String issue(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000L);
+        refreshTokenRepository.save(new RefreshToken(user, hash(rawToken), familyId, expiresAt));
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.auth.service;
+
+import com.auth.entity.Role;
+import com.auth.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Roles mantidas em memória, indexadas por {@link Role.RoleName}.
+ * <p>
+ * O conjunto de roles é fixo (enum) e só muda por migration, então registro, importação e alteração
+ * de roles pelo admin obtêm as instâncias daqui, sem consulta ao banco. O mapa é carregado na
+ * inicialização e recarregado por {@link #refresh()}, que também roda quando um nome pedido não está
+ * no mapa: uma role criada depois da subida passa a valer sem reiniciar a aplicação.
+ * <p>
+ * As instâncias são compartilhadas entre threads e ficam destacadas (detached) do contexto de
+ * persistência: servem apenas como referência (id) nas associações de user_roles e não devem ser
+ * alteradas.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository roleRepository;
+
+    // ReentrantLock em vez de synchronized: o recarregamento consulta o banco e não deve prender
+    // (pinning) a thread portadora quando roda em thread virtual
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Map<Role.RoleName, Role> roles = Map.of();
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public Optional<Role> find(Role.RoleName name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            role = reloadIfMissing(Set.of(name)).get(name);
+        }
+        return Optional.ofNullable(role);
+    }
+
+    // Devolve apenas as roles existentes; o chamador compara o tamanho com o pedido
+    public Set<Role> findAll(Collection<Role.RoleName> names) {
+        Map<Role.RoleName, Role> current = roles;
+        if (!current.keySet().containsAll(names)) {
+            current = reloadIfMissing(names);
+        }
+        Set<Role> found = new HashSet<>();
+        for (Role.RoleName name : names) {
+            Role role = current.get(name);
+            if (role != null) {
+                found.add(role);
+            }
+        }
+        return found;
+    }
+
+    // Recarrega uma única vez mesmo com várias threads esbarrando no mesmo nome ausente
+    private Map<Role.RoleName, Role> reloadIfMissing(Collection<Role.RoleName> names) {
+        refreshLock.lock();
+        try {
+            Map<Role.RoleName, Role> current = roles;
+            return current.keySet().containsAll(names) ? current : load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Map<Role.RoleName, Role> load() {
+        Map<Role.RoleName, Role> loaded = new EnumMap<>(Role.RoleName.class);
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role);
+        }
+        Map<Role.RoleName, Role> snapshot = Collections.unmodifiableMap(loaded);
+        roles = snapshot;
+        logger.debug("Role registry loaded: {}", snapshot.keySet());
+        return snapshot;
+    }
+}
@@ -0,0 +1,198 @@
+package com.auth.service;
+
+import com.auth.entity.TokenRevocation;
+import com.auth.entity.User;
+import com.auth.exception.UserNotFoundException;
+import com.auth.repository.TokenRevocationRepository;
+import com.auth.repository.UserRepository;
+import com.auth.security.VerifiedToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revogação de JWTs antes da expiração, sem consulta ao banco por requisição.
+ * <p>
+ * As revogações ficam na tabela {@code token_revocations}; o filtro consulta apenas um snapshot
+ * imutável em memória (conjunto de jti + mapa usuário → versão de segurança mínima), recarregado
+ * periodicamente. O caminho comum (token não revogado) é uma leitura volátil e duas buscas em hash,
+ * sem alocação. Revogações feitas nesta instância entram no snapshot logo após o commit; as das
+ * demais instâncias, no próximo recarregamento.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenService refreshTokenService;
+    private final ReadYourWrites readYourWrites;
+    private final long accessTokenExpiration;
+    private final boolean statelessAuthentication;
+
+    // ReentrantLock em vez de synchronized: o recarregamento consulta o banco e não deve prender
+    // (pinning) a thread portadora quando roda em thread virtual
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository,
+                                  UserRepository userRepository,
+                                  UserDetailsCache userDetailsCache,
+                                  RefreshTokenService refreshTokenService,
+                                  ReadYourWrites readYourWrites,
+                                  @Value("${app.jwt.expiration}") long accessTokenExpiration,
+                                  @Value("${app.jwt.stateless-authentication:false}") boolean statelessAuthentication) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.refreshTokenService = refreshTokenService;
+        this.readYourWrites = readYourWrites;
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.statelessAuthentication = statelessAuthentication;
+    }
+
+    private record Snapshot(Set<String> tokenIds, Map<Long, Long> minSecurityVersions) {
+        static final Snapshot EMPTY = new Snapshot(Set.of(), Map.of());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        Snapshot current = snapshot;
+        if (token.tokenId() != null && current.tokenIds().contains(token.tokenId())) {
+            return true;
+        }
+        if (token.userId() == null) {
+            return false;
+        }
+        Long minSecurityVersion = current.minSecurityVersions().get(token.userId());
+        return minSecurityVersion != null
+                && (token.securityVersion() == null || token.securityVersion() < minSecurityVersion);
+    }
+
+    // Logout: revoga apenas o token apresentado, até a sua expiração natural
+    @Transactional
+    public void revokeToken(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(token.expiration().toInstant(), ZoneId.systemDefault());
+        tokenRevocationRepository.save(TokenRevocation.forToken(token.tokenId(), expiresAt));
+        afterCommit(() -> apply(Set.of(token.tokenId()), Map.of()));
+    }
+
+    // Encerra todas as sessões: invalida os access tokens já emitidos e os refresh tokens do usuário
+    @Transactional
+    public void revokeAllSessions(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado com ID: " + userId));
+        revokeIssuedAccessTokens(user);
+        refreshTokenService.revokeAllForUser(userId);
+        userDetailsCache.evict(user.getEmail());
+        // Um login logo em seguida precisa da nova versão de segurança, senão o token emitido já nasce revogado
+        readYourWrites.recordWrite(user);
+        logger.info("All sessions revoked for user id {}", userId);
+    }
+
+    /**
+     * Mudança de roles: no modo stateless as roles vêm das claims, então um token antigo continuaria com
+     * as roles anteriores até expirar e precisa ser revogado. Fora dele o filtro recarrega as roles do
+     * banco a cada requisição e revogar só obrigaria o usuário a logar de novo.
+     */
+    @Transactional
+    public void onRolesChanged(User user) {
+        if (statelessAuthentication) {
+            revokeIssuedAccessTokens(user);
+        }
+    }
+
+    /**
+     * Incrementa a versão de segurança do usuário e revoga os access tokens emitidos antes dela. Deve
+     * rodar na transação que altera o usuário.
+     */
+    @Transactional
+    public void revokeIssuedAccessTokens(User user) {
+        user.incrementSecurityVersion();
+        Long userId = user.getId();
+        long minSecurityVersion = user.getSecurityVersion();
+        tokenRevocationRepository.save(TokenRevocation.forUser(userId, minSecurityVersion,
+                LocalDateTime.now().plusNanos(accessTokenExpiration * 1_000_000L)));
+        afterCommit(() -> apply(Set.of(), Map.of(userId, minSecurityVersion)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-interval:10s}")
+    public void refreshSnapshot() {
+        snapshotLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Set<String> tokenIds = Set.copyOf(tokenRevocationRepository.findActiveTokenIds(now));
+            Map<Long, Long> minSecurityVersions = new HashMap<>();
+            for (Object[] row : tokenRevocationRepository.findActiveUserRevocations(now)) {
+                minSecurityVersions.put((Long) row[0], (Long) row[1]);
+            }
+            snapshot = new Snapshot(tokenIds, Map.copyOf(minSecurityVersions));
+        } catch (RuntimeException e) {
+            // Mantém o snapshot anterior; a próxima execução tenta novamente
+            logger.warn("Failed to refresh token revocation snapshot: {}", e.getMessage());
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval:1h}",
+               initialDelayString = "${app.jwt.revocation.purge-interval:1h}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = tokenRevocationRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            logger.info("Purged {} expired token revocations", removed);
+        }
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current.tokenIds().size() + current.minSecurityVersions().size();
+    }
+
+    // Copy-on-write sob o mesmo lock do recarregamento, para que um recarregamento concorrente não
+    // descarte a revogação recém-aplicada
+    private void apply(Set<String> tokenIds, Map<Long, Long> minSecurityVersions) {
+        snapshotLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Set<String> mergedTokenIds = new HashSet<>(current.tokenIds());
+            mergedTokenIds.addAll(tokenIds);
+            Map<Long, Long> mergedVersions = new HashMap<>(current.minSecurityVersions());
+            minSecurityVersions.forEach((userId, version) -> mergedVersions.merge(userId, version, Math::max));
+            snapshot = new Snapshot(Set.copyOf(mergedTokenIds), Map.copyOf(mergedVersions));
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
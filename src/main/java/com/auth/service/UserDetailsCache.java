@@ -0,0 +1,86 @@
+package com.auth.service;
+
+import com.auth.entity.User;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache read-through dos usuários carregados no caminho de autenticação, indexado por email.
+ * <p>
+ * Toda alteração de roles ou credenciais deve chamar {@link #evict(String)}: a entrada é removida
+ * na hora e, dentro de uma transação, novamente após o commit, para que uma leitura concorrente
+ * feita antes do commit não deixe a versão antiga no cache.
+ * <p>
+ * O loader (consulta ao banco) roda na thread de quem chamou, mas fora do lock do mapa interno do
+ * cache: uma chamada síncrona {@code Cache.get} executaria a consulta dentro de um bloco
+ * {@code synchronized}, prendendo (pinning) a thread portadora quando as requisições rodam em
+ * threads virtuais. Por isso o cache guarda futures: a primeira chamada para um email registra um
+ * future pendente e o completa após a consulta; chamadas concorrentes aguardam o mesmo carregamento.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final AsyncCache<String, User> cache;
+
+    public UserDetailsCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                            @Value("${app.cache.users.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    // Retorna null (sem cachear) quando o loader não encontra o usuário
+    public User get(String email, Function<String, User> loader) {
+        CompletableFuture<User> pending = new CompletableFuture<>();
+        CompletableFuture<User> future = cache.get(email, (key, executor) -> pending);
+        if (future == pending) {
+            try {
+                pending.complete(loader.apply(email));
+            } catch (RuntimeException | Error e) {
+                // O future com falha sai do cache; quem aguardava recebe a mesma exceção
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(String email) {
+        cache.synchronous().invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(email);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+}
@@ -0,0 +1,192 @@
+package com.auth.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Exportação de todos os usuários em NDJSON ou CSV com memória constante.
+ * <p>
+ * As linhas vêm de um cursor JDBC forward-only com fetch size limitado (no PostgreSQL o driver só
+ * faz streaming dentro de uma transação, por isso o {@code @Transactional}) e são escritas direto
+ * na resposta, sem entidades nem DTOs intermediários. As roles são agregadas no próprio SQL.
+ * <p>
+ * A transação, e com ela uma conexão do pool, fica aberta durante todo o download: um cliente lento
+ * segura a conexão pelo tempo que levar para consumir a resposta.
+ */
+@Service
+public class UserExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    // Subconsulta correlacionada em vez de GROUP BY: o plano percorre users pela PK e emite cada linha
+    // assim que lida, sem agregar a tabela inteira antes da primeira linha
+    private static final String EXPORT_QUERY = """
+            SELECT u.id, u.email, u.first_name, u.last_name, u.created_at, u.updated_at,
+                   (SELECT string_agg(r.name, ',' ORDER BY r.name)
+                      FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                     WHERE ur.user_id = u.id) AS roles
+              FROM users u
+             ORDER BY u.id
+            """;
+
+    private static final String CSV_HEADER = "id,email,firstName,lastName,roles,createdAt,updatedAt\n";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public UserExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                             @Value("${app.users.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        try {
+            RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(objectMapper, writer);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, resultSet -> {
+                try {
+                    rowWriter.write(resultSet);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rowWriter.finish();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet row) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(ObjectMapper objectMapper, Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getLong("id"));
+            generator.writeStringField("email", row.getString("email"));
+            generator.writeStringField("firstName", row.getString("first_name"));
+            generator.writeStringField("lastName", row.getString("last_name"));
+            generator.writeArrayFieldStart("roles");
+            String roles = row.getString("roles");
+            if (roles != null) {
+                for (String role : roles.split(",")) {
+                    generator.writeString(role);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeStringField("createdAt", isoDateTime(row.getTimestamp("created_at")));
+            generator.writeStringField("updatedAt", isoDateTime(row.getTimestamp("updated_at")));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(Long.toString(row.getLong("id")));
+            writer.write(',');
+            writeField(row.getString("email"));
+            writer.write(',');
+            writeField(row.getString("first_name"));
+            writer.write(',');
+            writeField(row.getString("last_name"));
+            writer.write(',');
+            writeField(row.getString("roles"));
+            writer.write(',');
+            writeField(isoDateTime(row.getTimestamp("created_at")));
+            writer.write(',');
+            writeField(isoDateTime(row.getTimestamp("updated_at")));
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        // RFC 4180: aspas apenas quando o valor contém separador, aspas ou quebra de linha
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            value = neutralizeFormula(value);
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    // Nomes vêm do usuário: valores iniciados por =, +, -, @, tab ou CR seriam interpretados como fórmula
+    // pela planilha que abrir o CSV (CSV injection); o apóstrofo inicial faz a célula ser lida como texto
+    private static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        return formula ? "'" + value : value;
+    }
+
+    private static String isoDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime().toString();
+    }
+}
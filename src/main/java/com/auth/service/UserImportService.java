@@ -0,0 +1,254 @@
+package com.auth.service;
+
+import com.auth.dto.RegisterDTO;
+import com.auth.dto.UserImportReportDTO;
+import com.auth.dto.UserImportRowDTO;
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.exception.RoleNotFoundException;
+import com.auth.repository.UserRepository;
+import com.auth.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote de usuários com a role DEFAULT.
+ * <p>
+ * A entrada (array JSON ou NDJSON) é lida em streaming e processada em blocos de
+ * {@code app.users.import.batch-size} linhas. Cada bloco custa uma consulta de emails existentes, o
+ * hashing das senhas em paralelo no executor de BCrypt, a reserva dos ids na sequence (um nextval a
+ * cada 50 usuários) e dois INSERTs em batch JDBC (users e user_roles) em uma transação própria. Os
+ * blocos já gravados permanecem se um bloco posterior falhar; reenviar o mesmo arquivo é seguro,
+ * pois emails existentes voltam como DUPLICATE.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String INSERT_USER = "INSERT INTO users (id, email, password, first_name, last_name, "
+            + "created_at, updated_at, security_version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String NEXT_USER_ID_BLOCK = "SELECT nextval('users_id_seq')";
+    private static final String DUPLICATE_MESSAGE = "Este email já está em uso";
+    private static final String NOT_AN_OBJECT_MESSAGE = "A linha deve ser um objeto JSON";
+    private static final String REJECTED_MESSAGE = "Linha rejeitada pelo banco de dados";
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public UserImportService(UserRepository userRepository, RoleRegistry roleRegistry,
+                             BoundedPasswordEncoder passwordEncoder, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             Validator validator, @Value("${app.users.import.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    private record PendingRow(int row, RegisterDTO user) {}
+
+    public UserImportReportDTO importUsers(InputStream input) {
+        Role defaultRole = roleRegistry.find(Role.RoleName.DEFAULT)
+                .orElseThrow(() -> new RoleNotFoundException("Função padrão não encontrada"));
+
+        List<UserImportRowDTO> results = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+        Set<String> chunkEmails = new HashSet<>();
+        int row = 0;
+        // Cada linha é lida como árvore e só então convertida: null, escalares e campos com tipo errado
+        // viram linhas INVALID em vez de interromper a importação inteira
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                row++;
+                if (node == null || !node.isObject()) {
+                    results.add(new UserImportRowDTO(row, null, UserImportRowDTO.Status.INVALID, NOT_AN_OBJECT_MESSAGE));
+                    continue;
+                }
+                RegisterDTO user;
+                try {
+                    user = objectMapper.treeToValue(node, RegisterDTO.class);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    String email = node.path("email").isTextual() ? node.get("email").asText() : null;
+                    String message = e instanceof JsonProcessingException jsonException ? jsonException.getOriginalMessage() : e.getMessage();
+                    results.add(new UserImportRowDTO(row, email, UserImportRowDTO.Status.INVALID, message));
+                    continue;
+                }
+                String violations = validate(user);
+                if (violations != null) {
+                    results.add(new UserImportRowDTO(row, user.email(), UserImportRowDTO.Status.INVALID, violations));
+                } else if (!chunkEmails.add(user.email())) {
+                    results.add(new UserImportRowDTO(row, user.email(), UserImportRowDTO.Status.DUPLICATE, DUPLICATE_MESSAGE));
+                } else {
+                    chunk.add(new PendingRow(row, user));
+                    if (chunk.size() == batchSize) {
+                        importChunk(chunk, defaultRole, results);
+                        chunk.clear();
+                        chunkEmails.clear();
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Conteúdo de importação inválido após a linha " + row
+                    + ": " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, defaultRole, results);
+        }
+
+        results.sort((a, b) -> Integer.compare(a.row(), b.row()));
+        int created = count(results, UserImportRowDTO.Status.CREATED);
+        int duplicates = count(results, UserImportRowDTO.Status.DUPLICATE);
+        int invalid = count(results, UserImportRowDTO.Status.INVALID);
+        logger.info("User import finished: {} rows, {} created, {} duplicates, {} invalid", row, created, duplicates, invalid);
+        return new UserImportReportDTO(row, created, duplicates, invalid, results);
+    }
+
+    private void importChunk(List<PendingRow> chunk, Role defaultRole, List<UserImportRowDTO> results) {
+        Set<String> existing = userRepository.findExistingEmails(chunk.stream().map(p -> p.user().email()).toList());
+        List<PendingRow> toInsert = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (existing.contains(pending.user().email())) {
+                results.add(new UserImportRowDTO(pending.row(), pending.user().email(), UserImportRowDTO.Status.DUPLICATE, DUPLICATE_MESSAGE));
+            } else {
+                toInsert.add(pending);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(toInsert.stream().map(p -> p.user().password()).toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(toInsert, hashes, defaultRole));
+            toInsert.forEach(pending -> results.add(created(pending)));
+        } catch (DataIntegrityViolationException e) {
+            // Corrida com um registro concorrente ou valor recusado por uma constraint: refaz o bloco
+            // linha a linha para isolar a linha problemática sem abortar a importação
+            logger.debug("Integrity violation in import batch, retrying rows individually: {}", e.getMessage());
+            for (int i = 0; i < toInsert.size(); i++) {
+                PendingRow pending = toInsert.get(i);
+                List<PendingRow> single = List.of(pending);
+                List<String> singleHash = List.of(hashes.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(single, singleHash, defaultRole));
+                    results.add(created(pending));
+                } catch (DuplicateKeyException duplicate) {
+                    results.add(new UserImportRowDTO(pending.row(), pending.user().email(), UserImportRowDTO.Status.DUPLICATE, DUPLICATE_MESSAGE));
+                } catch (DataIntegrityViolationException rejected) {
+                    logger.debug("Import row {} rejected by the database: {}", pending.row(), rejected.getMessage());
+                    results.add(new UserImportRowDTO(pending.row(), pending.user().email(), UserImportRowDTO.Status.INVALID, REJECTED_MESSAGE));
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingRow> rows, List<String> hashes, Role defaultRole) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] ids = allocateIds(rows.size());
+        jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                RegisterDTO user = rows.get(i).user();
+                statement.setLong(1, ids[i]);
+                statement.setString(2, user.email());
+                statement.setString(3, hashes.get(i));
+                statement.setString(4, user.firstName());
+                statement.setString(5, user.lastName());
+                statement.setTimestamp(6, now);
+                statement.setTimestamp(7, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setLong(1, ids[i]);
+                statement.setLong(2, defaultRole.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    // Mesma regra do otimizador pooled do Hibernate: cada nextval (hi) reserva os ids hi - 49 .. hi,
+    // então os blocos desta importação e os do Hibernate nunca se sobrepõem
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int next = 0;
+        while (next < count) {
+            long hi = jdbcTemplate.queryForObject(NEXT_USER_ID_BLOCK, Long.class);
+            for (long id = Math.max(hi - User.ID_ALLOCATION_SIZE + 1, 1); id <= hi && next < count; id++) {
+                ids[next++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private String validate(RegisterDTO user) {
+        Set<ConstraintViolation<RegisterDTO>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static UserImportRowDTO created(PendingRow pending) {
+        return new UserImportRowDTO(pending.row(), pending.user().email(), UserImportRowDTO.Status.CREATED, null);
+    }
+
+    private static int count(List<UserImportRowDTO> results, UserImportRowDTO.Status status) {
+        return (int) results.stream().filter(result -> result.status() == status).count();
+    }
+}
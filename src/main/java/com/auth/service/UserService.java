@@ -2,61 +2,140 @@ package com.auth.service;
 
 import com.auth.dto.RoleDTO;
 import com.auth.dto.UserDTO;
+import com.auth.dto.UserPageDTO;
+import com.auth.entity.AuditEvent;
 import com.auth.entity.Role;
 import com.auth.entity.User;
 import com.auth.exception.RoleNotFoundException;
 import com.auth.exception.UserNotFoundException;
 import com.auth.mapper.UserMapper;
-import com.auth.repository.RoleRepository;
 import com.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final String USER_NOT_FOUND_BY_ID = "Usuário não encontrado com ID: ";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
     
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-
-    public UserService(UserRepository userRepository, RoleRepository roleRepository) {
+    private final RoleRegistry roleRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final AuditLogService auditLogService;
+    private final ReadYourWrites readYourWrites;
+    private final TokenRevocationService tokenRevocationService;
+    private final Timer loadFoundTimer;
+    private final Timer loadNotFoundTimer;
+
+    public UserService(UserRepository userRepository, RoleRegistry roleRegistry, UserDetailsCache userDetailsCache,
+                       AuditLogService auditLogService, ReadYourWrites readYourWrites,
+                       TokenRevocationService tokenRevocationService, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
+        this.userDetailsCache = userDetailsCache;
+        this.auditLogService = auditLogService;
+        this.readYourWrites = readYourWrites;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loadFoundTimer = loadTimer(meterRegistry, "found");
+        this.loadNotFoundTimer = loadTimer(meterRegistry, "not_found");
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.user.load")
+                .tag("outcome", outcome)
+                .description("Tempo de carregamento do usuário na autenticação, incluindo o cache")
+                .register(meterRegistry);
     }
     
+    // Sem @Transactional: um hit no cache não deve reservar conexão do pool; no miss a própria
+    // consulta do repositório (JOIN FETCH único) roda isolada
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+        long start = System.nanoTime();
+        User user = userDetailsCache.get(User.normalizeEmail(email), key -> readYourWrites.findUser(key, () -> userRepository.findByEmail(key)).orElse(null));
+        (user == null ? loadNotFoundTimer : loadFoundTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (user == null) {
+            throw new UsernameNotFoundException("Usuário não encontrado");
+        }
+        return user;
     }
     
+    // Chamado pelo DaoAuthenticationProvider após um login bem-sucedido quando o hash armazenado é mais
+    // fraco que o exigido (CalibratedBCryptPasswordEncoder); regrava o hash sem alterar a versão de segurança
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.evict(user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+    
+    // Página de usuários ordenada por id; o cursor é opaco e codifica o último id entregue
     @Transactional(readOnly = true)
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAllWithRoles().stream()
-                .map(UserMapper.INSTANCE::toDto)
-                .toList();
+    public UserPageDTO getUsers(String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.clamp(size, 1, MAX_PAGE_SIZE);
+        // Um id a mais indica se existe próxima página sem precisar de COUNT
+        List<Long> ids = userRepository.findIdsAfter(decodeCursor(cursor), Limit.of(pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        
+        List<UserDTO> users = pageIds.isEmpty() ? List.of()
+                : UserMapper.INSTANCE.fromRoleRows(userRepository.findRoleRowsByIdIn(pageIds));
+        return new UserPageDTO(users, hasNext ? encodeCursor(pageIds.getLast()) : null, hasNext);
     }
+    
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido", e);
+        }
+    }
+    
+    // Leituras por projeção: colunas do DTO direto em records, sem entidade no contexto de persistência
     @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findByIdWithRoles(id)
+        return UserMapper.INSTANCE.fromRoleRows(readYourWrites.read(id, () -> userRepository.findRoleRowsById(id))).stream()
+                .findFirst()
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_BY_ID + id));
-        return UserMapper.INSTANCE.toDto(user);
     }
     
     @Transactional(readOnly = true)
     public UserDTO getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        String canonicalEmail = User.normalizeEmail(email);
+        return UserMapper.INSTANCE.fromRoleRows(readYourWrites.read(canonicalEmail,
+                        () -> userRepository.findRoleRowsByEmail(canonicalEmail))).stream()
+                .findFirst()
                 .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado com email: " + email));
-        return UserMapper.INSTANCE.toDto(user);
     }
 
     @Transactional
@@ -65,24 +144,24 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findByIdWithRoles(id)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_BY_ID + id));
 
-        Set<Role.RoleName> roleNames = roles.stream().map(RoleDTO::name).map(Role.RoleName::from).collect(Collectors.toSet());
-
-        Set<Role> foundRoles = roleRepository.findByNameIn(roleNames)
-            .orElseThrow(() -> new RoleNotFoundException("Uma ou mais roles não encontradas"));
+        Set<Role.RoleName> roleNames = toRoleNames(roles);
+        Set<Role> foundRoles = findRoles(roleNames);
 
-        if (foundRoles.isEmpty() || foundRoles.size() != roleNames.size()) {
-            throw new RoleNotFoundException("Uma ou mais roles não encontradas");
-        }
-
-        for (Role role : foundRoles) {
-            if (user.getRoles().contains(role)) {
+        // Comparação por nome: as roles do registro não são as instâncias gerenciadas carregadas com o usuário
+        for (Role role : user.getRoles()) {
+            if (roleNames.contains(role.getName())) {
                 throw new IllegalArgumentException("O usuário já possui a role: " + role.getName());
             }
         }
         
         user.getRoles().addAll(foundRoles);
+        // No modo stateless os tokens emitidos com as roles anteriores deixam de valer
+        tokenRevocationService.onRolesChanged(user);
+        userDetailsCache.evict(user.getEmail());
         
         user = userRepository.save(user);
+        readYourWrites.recordWrite(user);
+        auditRoleChange(AuditEvent.Type.ROLES_ADDED, id, roleNames);
         
         return UserMapper.INSTANCE.toDto(user);
     }
@@ -92,33 +171,56 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findByIdWithRoles(id)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_BY_ID + id));
 
-        Set<Role.RoleName> roleNames = roles.stream()
-                .map(RoleDTO::name)
-                .map(Role.RoleName::from)
-                .collect(Collectors.toSet());
-
-        Set<Role> foundRoles = roleRepository.findByNameIn(roleNames)
-                .orElseThrow(() -> new RoleNotFoundException("Uma ou mais roles não encontradas"));
-
-        if (foundRoles.isEmpty() || foundRoles.size() != roleNames.size()) {
-            throw new RoleNotFoundException("Uma ou mais roles não encontradas");
-        }
+        Set<Role.RoleName> roleNames = toRoleNames(roles);
+        findRoles(roleNames);
 
-        for (Role role : foundRoles) {
-            if (!user.getRoles().contains(role)) {
-                throw new IllegalArgumentException("O usuário não possui a role: " + role.getName());
+        Set<Role.RoleName> currentNames = user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(Role.RoleName.class)));
+        for (Role.RoleName name : roleNames) {
+            if (!currentNames.contains(name)) {
+                throw new IllegalArgumentException("O usuário não possui a role: " + name);
             }
         }
 
-        if (user.getRoles().size() - foundRoles.size() < 1) {
+        if (currentNames.size() - roleNames.size() < 1) {
             throw new IllegalArgumentException("O usuário deve permanecer com pelo menos uma role");
         }
 
-        user.getRoles().removeAll(foundRoles);
+        user.getRoles().removeIf(role -> roleNames.contains(role.getName()));
+        // No modo stateless os tokens emitidos com as roles anteriores deixam de valer
+        tokenRevocationService.onRolesChanged(user);
+        userDetailsCache.evict(user.getEmail());
 
         user = userRepository.save(user);
+        readYourWrites.recordWrite(user);
+        auditRoleChange(AuditEvent.Type.ROLES_REMOVED, id, roleNames);
 
         return UserMapper.INSTANCE.toDto(user);
     }
+
+    // Enfileirado apenas após o commit (AuditLogService.record); o ator é o administrador autenticado
+    private void auditRoleChange(AuditEvent.Type type, Long userId, Set<Role.RoleName> roleNames) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String actor = authentication != null ? authentication.getName() : null;
+        String detail = roleNames.stream().map(Enum::name).collect(Collectors.joining(","));
+        auditLogService.record(AuditEvent.roleChange(type, actor, userId, detail));
+    }
+
+    private static Set<Role.RoleName> toRoleNames(Set<RoleDTO> roles) {
+        return roles.stream()
+                .map(RoleDTO::name)
+                .map(Role.RoleName::from)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(Role.RoleName.class)));
+    }
+
+    // Validação em memória pelo registro de roles, sem consulta ao banco
+    private Set<Role> findRoles(Set<Role.RoleName> roleNames) {
+        Set<Role> foundRoles = roleRegistry.findAll(roleNames);
+        if (foundRoles.isEmpty() || foundRoles.size() != roleNames.size()) {
+            throw new RoleNotFoundException("Uma ou mais roles não encontradas");
+        }
+        return foundRoles;
+    }
     
 }
@@ -0,0 +1,12 @@
+-- V10__Widen_audit_actor.sql
+-- actor recebe o email informado no login; VARCHAR(255) não comportava todo email válido (até 320
+-- caracteres). A alteração na tabela particionada se propaga para todas as partições e, por só
+-- aumentar o limite do VARCHAR, não reescreve as tabelas nem os índices
+
+ALTER TABLE auth_audit_events ALTER COLUMN actor TYPE VARCHAR(320);
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V10 - Coluna auth_audit_events.actor ampliada com sucesso!';
+END $$;
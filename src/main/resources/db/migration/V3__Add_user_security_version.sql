@@ -0,0 +1,11 @@
+-- V3__Add_user_security_version.sql
+-- Adiciona o carimbo de versão de segurança do usuário, embutido nos tokens JWT
+-- e incrementado sempre que roles ou credenciais do usuário mudam
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS security_version BIGINT NOT NULL DEFAULT 0;
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V3 - Coluna security_version adicionada com sucesso!';
+END $$;
@@ -0,0 +1,24 @@
+-- V4__Create_refresh_tokens_table.sql
+-- Tokens de refresh opacos: apenas o SHA-256 do token é armazenado. Tokens de uma mesma
+-- cadeia de rotação compartilham family_id, permitindo revogar a cadeia inteira em caso de reuso
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id UUID NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- A busca por token_hash usa o índice da constraint UNIQUE
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens(family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens(user_id);
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V4 - Tabela refresh_tokens criada com sucesso!';
+END $$;
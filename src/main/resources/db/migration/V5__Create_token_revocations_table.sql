@@ -0,0 +1,25 @@
+-- V5__Create_token_revocations_table.sql
+-- Revogações de JWT antes da expiração. Cada linha revoga um token específico (token_id = claim jti,
+-- usado no logout) ou todos os tokens de um usuário com versão de segurança menor que
+-- min_security_version (encerramento de sessões pelo admin). expires_at acompanha a validade do
+-- access token: após essa data a linha não tem mais efeito e pode ser removida
+
+CREATE TABLE IF NOT EXISTS token_revocations (
+    id BIGSERIAL PRIMARY KEY,
+    token_id VARCHAR(64) UNIQUE,
+    user_id BIGINT,
+    min_security_version BIGINT,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CHECK (token_id IS NOT NULL OR (user_id IS NOT NULL AND min_security_version IS NOT NULL))
+);
+
+-- O snapshot em memória é recarregado filtrando por expires_at
+CREATE INDEX IF NOT EXISTS idx_token_revocations_expires_at ON token_revocations(expires_at);
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V5 - Tabela token_revocations criada com sucesso!';
+END $$;
@@ -0,0 +1,18 @@
+-- V6__Use_pooled_id_sequences.sql
+-- Ids de users e roles passam a ser gerados pelo Hibernate a partir das sequences do BIGSERIAL com
+-- otimizador pooled (allocationSize = 50): cada nextval reserva um bloco de 50 ids, então os INSERTs
+-- não precisam devolver a chave gerada e podem ser enviados em batch JDBC.
+-- O valor atual é alinhado ao maior id existente para que o primeiro bloco (nextval - 49 .. nextval)
+-- nunca colida com linhas já gravadas. O DEFAULT nextval das colunas continua valendo para INSERTs manuais.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+
+SELECT setval('users_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_id_seq)));
+SELECT setval('roles_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM roles), (SELECT last_value FROM roles_id_seq)));
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V6 - Sequences de users e roles com incremento 50 (pooled)!';
+END $$;
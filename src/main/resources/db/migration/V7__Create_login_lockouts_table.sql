@@ -0,0 +1,20 @@
+-- V7__Create_login_lockouts_table.sql
+-- Bloqueios de login por excesso de falhas, gravados em write-behind pelo LoginAttemptService. A
+-- contagem de falhas fica só em memória; apenas os bloqueios são persistidos, para que um reinício
+-- não libere contas e origens sob ataque. throttle_key é "account:<email>" ou "source:<endereço>"
+
+CREATE TABLE IF NOT EXISTS login_lockouts (
+    throttle_key VARCHAR(320) PRIMARY KEY,
+    lockouts INT NOT NULL,
+    locked_until TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Carga dos bloqueios vigentes na subida e limpeza periódica filtram por locked_until
+CREATE INDEX IF NOT EXISTS idx_login_lockouts_locked_until ON login_lockouts(locked_until);
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V7 - Tabela login_lockouts criada com sucesso!';
+END $$;
@@ -0,0 +1,46 @@
+-- V8__Create_auth_audit_events_table.sql
+-- Trilha de auditoria de autenticação (logins, falhas, bloqueios e alterações de roles), gravada em
+-- lote e de forma assíncrona pelo AuditLogService. A tabela é particionada por mês em occurred_at:
+-- as inserções caem sempre na partição corrente e a retenção é feita removendo partições antigas
+-- (DROP TABLE), sem DELETE em massa. user_id não tem FK para que o histórico sobreviva à exclusão
+
+CREATE TABLE IF NOT EXISTS auth_audit_events (
+    id BIGSERIAL,
+    occurred_at TIMESTAMP NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    actor VARCHAR(255),
+    user_id BIGINT,
+    client_address VARCHAR(64),
+    detail VARCHAR(255),
+    -- Em tabela particionada a chave primária precisa conter a chave de partição
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+-- Recebe eventos fora das partições mensais, para que uma partição ainda não criada nunca faça a
+-- gravação falhar
+CREATE TABLE IF NOT EXISTS auth_audit_events_default PARTITION OF auth_audit_events DEFAULT;
+
+-- Cria (se necessário) a partição do mês que contém a data informada; chamada pela aplicação
+-- diariamente para o mês seguinte
+CREATE OR REPLACE FUNCTION create_auth_audit_events_partition(target DATE) RETURNS VOID AS $$
+DECLARE
+    start_date DATE := date_trunc('month', target)::DATE;
+    end_date DATE := (date_trunc('month', target) + INTERVAL '1 month')::DATE;
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF auth_audit_events FOR VALUES FROM (%L) TO (%L)',
+                   'auth_audit_events_' || to_char(start_date, 'YYYY_MM'), start_date, end_date);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_auth_audit_events_partition(CURRENT_DATE);
+SELECT create_auth_audit_events_partition((CURRENT_DATE + INTERVAL '1 month')::DATE);
+
+-- Consultas de auditoria filtram por usuário/ator dentro de um intervalo de tempo
+CREATE INDEX IF NOT EXISTS idx_auth_audit_events_actor ON auth_audit_events(actor, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_auth_audit_events_user_id ON auth_audit_events(user_id, occurred_at);
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V8 - Tabela auth_audit_events criada com sucesso!';
+END $$;
@@ -0,0 +1,38 @@
+-- V9__Canonicalize_user_emails.sql
+-- Emails passam a ser gravados na forma canônica (sem espaços nas pontas e em minúsculas, como em
+-- User.normalizeEmail) e as buscas comparam por igualdade com o parâmetro já normalizado. Com isso o
+-- índice da constraint UNIQUE (users_email_key) é o único índice de users.email e vale para qualquer
+-- variação de caixa: idx_users_email (V1) duplicava esse índice e é removido, e não é preciso um
+-- índice funcional em lower(email), que as consultas só usariam se repetissem a mesma expressão
+
+-- Contas que só diferem na caixa não podem ser unificadas automaticamente: a migração falha e lista os
+-- emails para resolução manual, antes de alterar qualquer linha
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(canonical, ', ') INTO conflicts
+    FROM (
+        SELECT lower(btrim(email)) AS canonical
+        FROM users
+        GROUP BY lower(btrim(email))
+        HAVING COUNT(*) > 1
+    ) duplicated;
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Migração V9 - emails duplicados ignorando caixa: %', conflicts;
+    END IF;
+END $$;
+
+UPDATE users SET email = lower(btrim(email)) WHERE email <> lower(btrim(email));
+
+DROP INDEX IF EXISTS idx_users_email;
+
+-- Garante a forma canônica também para escritas fora da aplicação (SQL manual, importações)
+ALTER TABLE users ADD CONSTRAINT chk_users_email_canonical CHECK (email = lower(btrim(email)));
+
+-- Comentário para verificar se a migração foi executada
+DO $$
+BEGIN
+    RAISE NOTICE 'Migração V9 - Emails canônicos com índice único em users.email!';
+END $$;
@@ -0,0 +1,140 @@
+package com.auth.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ReplicaRoutingDataSource - Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final DataSource replica2 = mock(DataSource.class);
+    // Atraso informado pela sonda; ausente = réplica não responde
+    private final Map<DataSource, Duration> lags = new HashMap<>();
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        lags.put(replica1, Duration.ZERO);
+        lags.put(replica2, Duration.ofMillis(200));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(1), lags::get, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Should read from primary until the first health check")
+    void shouldReadFromPrimaryUntilFirstHealthCheck() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should send writes to primary and spread read-only transactions across replicas")
+    void shouldRouteByTransactionReadOnlyFlag() throws SQLException {
+        routing.checkReplicas();
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.getConnection()).isSameAs(replica1Connection);
+        assertThat(routing.getConnection()).isSameAs(replica2Connection);
+        assertThat(routing.getConnection()).isSameAs(replica1Connection);
+        assertThat(meterRegistry.counter("auth.datasource.read_connections", "target", "replica").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should leave lagging or unreachable replicas out of rotation until they recover")
+    void shouldSkipLaggingReplicas() throws SQLException {
+        lags.put(replica1, Duration.ofSeconds(30));
+        lags.remove(replica2);
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.availableCount()).isZero();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("auth.datasource.replica.lag").tag("replica", "replica-1").timeGauge()
+                .value()).isEqualTo(30.0);
+
+        lags.put(replica1, Duration.ofMillis(500));
+        routing.checkReplicas();
+
+        assertThat(routing.getConnection()).isSameAs(replica1Connection);
+    }
+
+    @Test
+    @DisplayName("Should fall back to primary and drop the replica when its connection fails")
+    void shouldFallBackWhenReplicaConnectionFails() throws SQLException {
+        routing.checkReplicas();
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.availableCount()).isEqualTo(1);
+        assertThat(routing.getConnection()).isSameAs(replica2Connection);
+    }
+
+    @Test
+    @DisplayName("Should send connections with explicit credentials to primary")
+    void shouldSendExplicitCredentialsToPrimary() throws SQLException {
+        when(primary.getConnection("admin", "secret")).thenReturn(primaryConnection);
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getConnection("admin", "secret")).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should read from primary while the thread is pinned to it")
+    void shouldReadFromPrimaryWhilePinned() throws SQLException {
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Connection pinned = ReplicaRoutingDataSource.usePrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(pinned).isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(replica1Connection);
+    }
+}
@@ -2,9 +2,13 @@ package com.auth.controller;
 
 import com.auth.dto.AuthDTO;
 import com.auth.dto.LoginDTO;
+import com.auth.dto.RefreshTokenDTO;
 import com.auth.dto.RegisterDTO;
 import com.auth.exception.GlobalExceptionHandler;
 import com.auth.exception.InvalidCredentialsException;
+import com.auth.exception.InvalidRefreshTokenException;
+import com.auth.exception.LoginBlockedException;
+import com.auth.exception.PasswordHashingUnavailableException;
 import com.auth.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -33,6 +37,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -111,7 +116,7 @@ class AuthControllerTest {
 	LoginDTO request = new LoginDTO("john.doe@example.com", "password123");
 	LocalDateTime expiresAt = LocalDateTime.of(2025, 1, 1, 12, 0);
 		AuthDTO response = new AuthDTO("token-456", "Bearer", "john.doe@example.com", "John", "Doe", expiresAt);
-		when(authService.login(any(LoginDTO.class))).thenReturn(response);
+		when(authService.login(any(LoginDTO.class), any())).thenReturn(response);
 
 		mockMvc.perform(post("/api/auth/login")
 				.contentType(MediaType.APPLICATION_JSON)
@@ -123,14 +128,14 @@ class AuthControllerTest {
 			.andExpect(jsonPath("$.lastName").value("Doe"))
 			.andExpect(jsonPath("$.expiresAt").value(expiresAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
 
-		verify(authService).login(any(LoginDTO.class));
+		verify(authService).login(any(LoginDTO.class), any());
 	}
 
 	@Test
 	@DisplayName("Should return unauthorized when credentials are invalid")
 	void shouldReturnUnauthorizedWhenCredentialsAreInvalid() throws Exception {
 		LoginDTO request = new LoginDTO("john.doe@example.com", "wrong-password");
-		when(authService.login(any(LoginDTO.class))).thenThrow(new InvalidCredentialsException("Credenciais inválidas"));
+		when(authService.login(any(LoginDTO.class), any())).thenThrow(new InvalidCredentialsException("Credenciais inválidas"));
 
 		mockMvc.perform(post("/api/auth/login")
 				.contentType(MediaType.APPLICATION_JSON)
@@ -141,7 +146,82 @@ class AuthControllerTest {
 			.andExpect(jsonPath("$.status").value(401))
 			.andExpect(jsonPath("$.path").value("/api/auth/login"));
 
-		verify(authService).login(any(LoginDTO.class));
+		verify(authService).login(any(LoginDTO.class), any());
+	}
+
+	@Test
+	@DisplayName("Should return service unavailable with retry-after when password hashing is overloaded")
+	void shouldReturnServiceUnavailableWhenPasswordHashingIsOverloaded() throws Exception {
+		LoginDTO request = new LoginDTO("john.doe@example.com", "password123");
+		when(authService.login(any(LoginDTO.class), any()))
+			.thenThrow(new PasswordHashingUnavailableException("Serviço temporariamente sobrecarregado, tente novamente", 2));
+
+		mockMvc.perform(post("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(request)))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(header().string("Retry-After", "2"))
+			.andExpect(jsonPath("$.error").value("SERVICE_OVERLOADED"))
+			.andExpect(jsonPath("$.status").value(503));
+	}
+
+	@Test
+	@DisplayName("Should return too many requests with retry-after when login is blocked")
+	void shouldReturnTooManyRequestsWhenLoginIsBlocked() throws Exception {
+		LoginDTO request = new LoginDTO("john.doe@example.com", "password123");
+		when(authService.login(any(LoginDTO.class), any()))
+			.thenThrow(new LoginBlockedException("Muitas tentativas de login, tente novamente em 60 segundos", 60));
+
+		mockMvc.perform(post("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(request)))
+			.andExpect(status().isTooManyRequests())
+			.andExpect(header().string("Retry-After", "60"))
+			.andExpect(jsonPath("$.error").value("TOO_MANY_ATTEMPTS"))
+			.andExpect(jsonPath("$.status").value(429));
+	}
+
+	@Test
+	@DisplayName("Should rotate tokens when refresh token is valid")
+	void shouldRotateTokensWhenRefreshTokenIsValid() throws Exception {
+		LocalDateTime expiresAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+		AuthDTO response = new AuthDTO("token-789", "Bearer", "john.doe@example.com", "John", "Doe", expiresAt, "refresh-new");
+		when(authService.refresh(any(RefreshTokenDTO.class))).thenReturn(response);
+
+		mockMvc.perform(post("/api/auth/refresh")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new RefreshTokenDTO("refresh-old"))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.token").value("token-789"))
+			.andExpect(jsonPath("$.refreshToken").value("refresh-new"));
+
+		verify(authService).refresh(any(RefreshTokenDTO.class));
+	}
+
+	@Test
+	@DisplayName("Should return unauthorized when refresh token is invalid")
+	void shouldReturnUnauthorizedWhenRefreshTokenIsInvalid() throws Exception {
+		when(authService.refresh(any(RefreshTokenDTO.class)))
+			.thenThrow(new InvalidRefreshTokenException("Refresh token inválido ou expirado"));
+
+		mockMvc.perform(post("/api/auth/refresh")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new RefreshTokenDTO("refresh-reused"))))
+			.andExpect(status().isUnauthorized())
+			.andExpect(jsonPath("$.error").value("INVALID_REFRESH_TOKEN"))
+			.andExpect(jsonPath("$.status").value(401));
+	}
+
+	@Test
+	@DisplayName("Should logout revoking the bearer token and refresh token")
+	void shouldLogoutRevokingBearerTokenAndRefreshToken() throws Exception {
+		mockMvc.perform(post("/api/auth/logout")
+				.header("Authorization", "Bearer token-123")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new RefreshTokenDTO("refresh-123"))))
+			.andExpect(status().isNoContent());
+
+		verify(authService).logout("token-123", "refresh-123");
 	}
 
 	@Test
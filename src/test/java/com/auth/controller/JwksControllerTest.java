@@ -0,0 +1,47 @@
+package com.auth.controller;
+
+import com.auth.security.JwtSigningKeys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("JwksController - Web layer tests")
+class JwksControllerTest {
+
+	@Test
+	@DisplayName("Should serve cacheable JWKS and honor If-None-Match")
+	void shouldServeCacheableJwks() throws Exception {
+		JwtSigningKeys signingKeys = JwtSigningKeys.asymmetric("ES256", JwtSigningKeys.generateKeyPair("ES256"), List.of());
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(signingKeys, Duration.ofHours(1))).build();
+
+		MvcResult result = mockMvc.perform(get("/.well-known/jwks.json"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Cache-Control", "max-age=3600, public"))
+			.andExpect(jsonPath("$.keys[0].kid").value(signingKeys.getActiveKeyId()))
+			.andExpect(jsonPath("$.keys[0].kty").value("EC"))
+			.andReturn();
+
+		mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", result.getResponse().getHeader("ETag")))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	@DisplayName("Should return not found when signing with HMAC")
+	void shouldReturnNotFoundWhenSigningWithHmac() throws Exception {
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+			new JwksController(JwtSigningKeys.hmac("12345678901234567890123456789012"), Duration.ofHours(1))).build();
+
+		mockMvc.perform(get("/.well-known/jwks.json"))
+			.andExpect(status().isNotFound());
+	}
+}
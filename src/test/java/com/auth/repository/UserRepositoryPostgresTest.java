@@ -0,0 +1,183 @@
+package com.auth.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.auth.entity.User;
+
+/**
+ * Planos das buscas por email no PostgreSQL real, com as migrações Flyway aplicadas.
+ * <p>
+ * Cada teste executa o método do repositório, captura o SQL gerado pelo Hibernate e roda
+ * {@code EXPLAIN} do plano genérico com {@code enable_seqscan = off}. O plano precisa buscar pelo índice
+ * único de users.email ({@code Index Cond} sobre email), e não apenas percorrê-lo: com
+ * {@code lower(u.email)} na consulta o planner ainda pode ler o índice inteiro e aplicar a expressão como
+ * {@code Filter}, por isso o nome do índice no plano não basta. Ignorado quando não há Docker disponível.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.auth.repository.UserRepositoryPostgresTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("UserRepository - PostgreSQL Query Plan Tests")
+class UserRepositoryPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String EMAIL_INDEX = "users_email_key";
+    private static final String EMAIL = "joao@email.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User(EMAIL, "hash", "João", "Silva"));
+        userRepository.flush();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    @DisplayName("Should drop the duplicate email index and keep a single unique index")
+    void shouldKeepSingleEmailIndex() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'users' AND indexdef LIKE '%(email)%'",
+                String.class);
+
+        assertThat(indexes).containsExactly(EMAIL_INDEX);
+    }
+
+    @Test
+    @DisplayName("Should reject non-canonical emails written outside the application")
+    void shouldRejectNonCanonicalEmails() {
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO users (id, email, password, first_name, last_name) VALUES (-1, 'Maria@Email.com', 'x', 'M', 'S')"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("chk_users_email_canonical");
+    }
+
+    @Test
+    @DisplayName("Should accept non-ASCII emails normalized by the application")
+    void shouldAcceptNonAsciiEmailsNormalizedByTheApplication() {
+        userRepository.saveAndFlush(new User(User.normalizeEmail("  JOÃO.Ímpar@Email.com "), "hash", "João", "Ímpar"));
+
+        assertThat(userRepository.existsByEmail(User.normalizeEmail("joão.ímpar@EMAIL.com"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should flag a lookup that only filters the email index with lower()")
+    void shouldFlagLookupFilteringEmailIndexWithLower() {
+        assertThatThrownBy(() -> assertUsesEmailIndex("SELECT u.email FROM users u WHERE lower(u.email) = ?"))
+                .isInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    @DisplayName("Should find user by email written in any case through the unique index")
+    void shouldFindByEmailThroughIndex() {
+        assertThat(userRepository.findByEmail(User.normalizeEmail("  JOAO@Email.com"))).isPresent();
+
+        assertUsesEmailIndex(lastStatement());
+    }
+
+    @Test
+    @DisplayName("Should use the email index in every email lookup")
+    void shouldUseEmailIndexInEveryLookup() {
+        assertThat(userRepository.existsByEmail(EMAIL)).isTrue();
+        assertUsesEmailIndex(lastStatement());
+
+        assertThat(userRepository.findExistingEmails(List.of(EMAIL, "outro@email.com"))).isEqualTo(Set.of(EMAIL));
+        assertUsesEmailIndex(lastStatement());
+
+        assertThat(userRepository.findRoleRowsByEmail(EMAIL)).hasSize(1);
+        assertUsesEmailIndex(lastStatement());
+
+        assertThat(userRepository.updatePassword(EMAIL, "novo-hash")).isEqualTo(1);
+        assertUsesEmailIndex(lastStatement());
+    }
+
+    private static String lastStatement() {
+        List<String> statements = RecordingStatementInspector.statements();
+        assertThat(statements).isNotEmpty();
+        return statements.getLast();
+    }
+
+    // Parâmetros JDBC (?) viram $1..$n de um PREPARE; com plan_cache_mode = force_generic_plan o plano
+    // não depende dos valores passados no EXECUTE
+    private void assertUsesEmailIndex(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 8);
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("PREPARE email_lookup AS " + numbered);
+        String plan;
+        try {
+            plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN EXECUTE email_lookup" + arguments, String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE email_lookup");
+        }
+
+        List<String> lines = plan.lines().map(String::strip).toList();
+        assertThat(plan).as("Plano de %s", sql).contains(EMAIL_INDEX);
+        assertThat(lines)
+                .as("Plano de %s", sql)
+                .anySatisfy(line -> assertThat(line).startsWith("Index Cond:").contains("email"))
+                .noneSatisfy(line -> assertThat(line).startsWith("Filter:").contains("lower("));
+    }
+
+    /**
+     * Registra o SQL preparado pelo Hibernate; instanciado pelo próprio Hibernate a partir do nome da
+     * classe, por isso o estado é estático.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        static synchronized void clear() {
+            STATEMENTS.clear();
+        }
+
+        static synchronized List<String> statements() {
+            return List.copyOf(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (RecordingStatementInspector.class) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -11,11 +11,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.auth.config.NoFlywayTestConfig;
 import com.auth.entity.Role;
 import com.auth.entity.User;
+import com.auth.repository.projection.UserRoleRow;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -56,8 +58,8 @@ class UserRepositoryTest {
     }
 
     @Test
-    @DisplayName("Should retrieve all users with their roles")
-    void shouldReturnAllUsersWithRoles() {
+    @DisplayName("Should retrieve a page of users with their roles")
+    void shouldReturnPageOfUsersWithRoles() {
         User user1 = new User(adminEmail, password, "Role", "User");
         user1.addRole(adminRole);
         userRepository.save(user1);
@@ -66,23 +68,54 @@ class UserRepositoryTest {
         user2.addRole(defaultRole);
         userRepository.save(user2);
 
-        List<User> users = userRepository.findAllWithRoles();
+        List<Long> ids = userRepository.findIdsAfter(0L, Limit.of(10));
+        List<UserRoleRow> rows = userRepository.findRoleRowsByIdIn(ids);
 
-        Assertions.assertThat(users).isNotNull().isNotEmpty().hasSize(2);
+        Assertions.assertThat(rows).isNotNull().hasSize(2);
+        Assertions.assertThat(rows).extracting(UserRoleRow::id).isSorted();
 
-        User foundAdmin = users.stream()
-            .filter(u -> u.getEmail().equals(adminEmail))
+        UserRoleRow foundAdmin = rows.stream()
+            .filter(r -> r.email().equals(adminEmail))
             .findFirst()
             .orElseThrow(() -> new AssertionError("adminuser@example.com not found"));
-        Assertions.assertThat(foundAdmin.getRoles()).isNotNull().isNotEmpty();
-        Assertions.assertThat(foundAdmin.getRoles().stream().map(Role::getName)).contains(Role.RoleName.ADMIN);
+        Assertions.assertThat(foundAdmin.role()).isEqualTo(Role.RoleName.ADMIN);
 
-        User foundDefault = users.stream()
-            .filter(u -> u.getEmail().equals(defaultEmail))
+        UserRoleRow foundDefault = rows.stream()
+            .filter(r -> r.email().equals(defaultEmail))
             .findFirst()
             .orElseThrow(() -> new AssertionError("defaultuser@example.com not found"));
-        Assertions.assertThat(foundDefault.getRoles()).isNotNull().isNotEmpty();
-        Assertions.assertThat(foundDefault.getRoles().stream().map(Role::getName)).contains(Role.RoleName.DEFAULT);
+        Assertions.assertThat(foundDefault.role()).isEqualTo(Role.RoleName.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Should project one row per role by id and email")
+    void shouldProjectOneRowPerRole() {
+        testUser.setRoles(Set.of(adminRole, defaultRole));
+        Long id = userRepository.save(testUser).getId();
+        userRepository.save(new User(defaultEmail, password, firstName, lastName));
+
+        Assertions.assertThat(userRepository.findRoleRowsById(id))
+            .extracting(UserRoleRow::role)
+            .containsExactlyInAnyOrder(Role.RoleName.ADMIN, Role.RoleName.DEFAULT);
+        Assertions.assertThat(userRepository.findRoleRowsByEmail(testEmail))
+            .extracting(UserRoleRow::id, UserRoleRow::firstName)
+            .containsOnly(Assertions.tuple(id, firstName));
+        Assertions.assertThat(userRepository.findRoleRowsByEmail(defaultEmail))
+            .singleElement()
+            .extracting(UserRoleRow::role)
+            .isNull();
+        Assertions.assertThat(userRepository.findRoleRowsById(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should seek ids after cursor in ascending order")
+    void shouldSeekIdsAfterCursorInAscendingOrder() {
+        Long firstId = userRepository.save(new User("first@example.com", password, firstName, lastName)).getId();
+        Long secondId = userRepository.save(new User("second@example.com", password, firstName, lastName)).getId();
+        Long thirdId = userRepository.save(new User("third@example.com", password, firstName, lastName)).getId();
+
+        Assertions.assertThat(userRepository.findIdsAfter(0L, Limit.of(2))).containsExactly(firstId, secondId);
+        Assertions.assertThat(userRepository.findIdsAfter(secondId, Limit.of(2))).containsExactly(thirdId);
     }
 
     @Test
@@ -96,6 +129,18 @@ class UserRepositoryTest {
         Assertions.assertThat(foundUser.get().getEmail()).isEqualTo(testEmail);
     }
 
+    @Test
+    @DisplayName("Should store email in canonical form")
+    void shouldStoreEmailInCanonicalForm() {
+        userRepository.save(new User("  Test@Example.COM ", password, firstName, lastName));
+
+        Assertions.assertThat(userRepository.findByEmail(User.normalizeEmail("TEST@example.com")))
+            .get()
+            .extracting(User::getEmail)
+            .isEqualTo(testEmail);
+        Assertions.assertThat(userRepository.existsByEmail(testEmail)).isTrue();
+    }
+
     @Test
     @DisplayName("Should find user by id with their roles")
     void shouldReturnUserByIdWithRoles() {
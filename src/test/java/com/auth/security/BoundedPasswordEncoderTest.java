@@ -0,0 +1,116 @@
+package com.auth.security;
+
+import com.auth.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BoundedPasswordEncoder - Unit Tests")
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should encode and match passwords on the hashing executor")
+    void shouldEncodeAndMatchPasswordsOnHashingExecutor() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4,
+                Duration.ofSeconds(5), Duration.ofSeconds(1), meterRegistry);
+
+        String encoded = encoder.encode("segredo123");
+
+        assertThat(encoder.matches("segredo123", encoded)).isTrue();
+        assertThat(encoder.matches("errada", encoded)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should encode a batch in parallel without overflowing a small queue")
+    void shouldEncodeBatchWithoutOverflowingQueue() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 1,
+                Duration.ofSeconds(5), Duration.ofSeconds(1), meterRegistry);
+        List<String> passwords = List.of("senha-0", "senha-1", "senha-2", "senha-3", "senha-4", "senha-5");
+
+        List<String> encoded = encoder.encodeAll(passwords);
+
+        assertThat(encoded).hasSize(passwords.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertThat(encoder.matches(passwords.get(i), encoded.get(i))).isTrue();
+        }
+        assertThat(meterRegistry.find("auth.password.hash.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject hashing when executor queue is full")
+    void shouldRejectHashingWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1,
+                Duration.ofSeconds(5), Duration.ofSeconds(3), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(PasswordHashingUnavailableException.class)
+                .satisfies(ex -> assertThat(((PasswordHashingUnavailableException) ex).getRetryAfterSeconds()).isEqualTo(3));
+        assertThat(meterRegistry.get("auth.password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("encoded");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("encoded");
+    }
+
+    @Test
+    @DisplayName("Should fail fast when hashing exceeds maximum wait")
+    void shouldFailFastWhenHashingExceedsMaxWait() {
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), release), 1, 1,
+                Duration.ofMillis(50), Duration.ofSeconds(1), meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("a")).isInstanceOf(PasswordHashingUnavailableException.class);
+        release.countDown();
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "encoded";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.auth.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CalibratedBCryptPasswordEncoder - Unit Tests")
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    @DisplayName("Should request upgrade only for weaker hashes")
+    void shouldRequestUpgradeOnlyForWeakerHashes() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("segredo123"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("segredo123"))).isFalse();
+        assertThat(encoder.upgradeEncoding(encoder.encode("segredo123"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should converge to the highest cost between nodes calibrated to different costs")
+    void shouldConvergeToHighestCostBetweenNodesCalibratedToDifferentCosts() {
+        CalibratedBCryptPasswordEncoder slowNode = new CalibratedBCryptPasswordEncoder(5);
+        CalibratedBCryptPasswordEncoder fastNode = new CalibratedBCryptPasswordEncoder(6);
+
+        assertThat(fastNode.upgradeEncoding(slowNode.encode("segredo123"))).isTrue();
+        assertThat(slowNode.upgradeEncoding(fastNode.encode("segredo123"))).isFalse();
+        assertThat(fastNode.upgradeEncoding(fastNode.encode("segredo123"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not request upgrade for non BCrypt values")
+    void shouldNotRequestUpgradeForNonBcryptValues() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("plain-text")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match hashes produced with other costs")
+    void shouldMatchHashesProducedWithOtherCosts() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.matches("segredo123", new BCryptPasswordEncoder(4).encode("segredo123"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep calibrated strength within bounds")
+    void shouldKeepCalibratedStrengthWithinBounds() {
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(Duration.ofNanos(1), 4, 6)).isEqualTo(4);
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+}
@@ -0,0 +1,102 @@
+package com.auth.security;
+
+import com.auth.dto.RoleDTO;
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.repository.TokenRevocationRepository;
+import com.auth.repository.UserRepository;
+import com.auth.service.AuditLogService;
+import com.auth.service.JwtService;
+import com.auth.service.ReadYourWrites;
+import com.auth.service.RefreshTokenService;
+import com.auth.service.RoleRegistry;
+import com.auth.service.TokenRevocationService;
+import com.auth.service.UserDetailsCache;
+import com.auth.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("JwtAuthenticationFilter - Unit Tests")
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+    private static final long EXPIRATION = 3_600_000L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+    private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private UserService userService;
+    private JwtAuthenticationFilter filter;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, EXPIRATION);
+        meterRegistry = new SimpleMeterRegistry();
+        ReadYourWrites readYourWrites = new ReadYourWrites(false, Duration.ofSeconds(5), Duration.ofSeconds(5), 100);
+        UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(mock(TokenRevocationRepository.class),
+                userRepository, userDetailsCache, mock(RefreshTokenService.class), readYourWrites, EXPIRATION, true);
+        userService = new UserService(userRepository, roleRegistry, userDetailsCache, mock(AuditLogService.class),
+                readYourWrites, tokenRevocationService, meterRegistry);
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtService, true, 100), userService,
+                tokenRevocationService, true, meterRegistry);
+
+        admin = new User("admin@example.com", "password", "Admin", "User");
+        admin.setId(1L);
+        admin.addRole(new Role(Role.RoleName.DEFAULT));
+        admin.addRole(new Role(Role.RoleName.ADMIN));
+        when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(admin));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(roleRegistry.findAll(Set.of(Role.RoleName.ADMIN))).thenReturn(Set.of(new Role(Role.RoleName.ADMIN)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should reject in stateless mode a token issued before a role was removed")
+    void shouldRejectStatelessTokenIssuedBeforeRoleRemoval() throws Exception {
+        String oldToken = jwtService.generateToken(admin);
+        assertThat(authenticate(oldToken)).isNotNull()
+                .satisfies(authentication -> assertThat(authentication.getAuthorities())
+                        .extracting(Object::toString).contains("ROLE_ADMIN"));
+
+        userService.removeRolesFromUser(1L, Set.of(new RoleDTO("ADMIN")));
+
+        assertThat(authenticate(oldToken)).isNull();
+        assertThat(meterRegistry.timer("auth.filter", "outcome", "revoked").count()).isEqualTo(1);
+        // O token emitido depois da mudança já carrega a nova versão e só a role restante
+        assertThat(authenticate(jwtService.generateToken(admin))).isNotNull()
+                .satisfies(authentication -> assertThat(authentication.getAuthorities())
+                        .extracting(Object::toString).containsExactly("ROLE_DEFAULT"));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), mock(FilterChain.class));
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,66 @@
+package com.auth.security;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtSigningKeys - Unit Tests")
+class JwtSigningKeysTest {
+
+    @Test
+    @DisplayName("Should not publish a JWKS for HMAC signing")
+    void shouldNotPublishJwksForHmacSigning() {
+        JwtSigningKeys signingKeys = JwtSigningKeys.hmac("12345678901234567890123456789012");
+
+        assertThat(signingKeys.getJwks()).isNull();
+        assertThat(signingKeys.getActiveKeyId()).isNull();
+        assertThat(signingKeys.getSignatureAlgorithm()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should publish active and additional public keys without private material")
+    void shouldPublishActiveAndAdditionalPublicKeys() {
+        KeyPair active = JwtSigningKeys.generateKeyPair("RS256");
+        KeyPair previous = JwtSigningKeys.generateKeyPair("RS256");
+
+        JwtSigningKeys signingKeys = JwtSigningKeys.asymmetric("RS256", active, List.of(previous.getPublic()));
+
+        assertThat(signingKeys.getJwks())
+                .startsWith("{\"keys\":[")
+                .contains("\"kid\":\"" + signingKeys.getActiveKeyId() + "\"")
+                .contains("\"alg\":\"RS256\"", "\"use\":\"sig\"")
+                .doesNotContain("\"d\":", "\"p\":", "\"q\":");
+        assertThat(signingKeys.getVerificationKey(signingKeys.getActiveKeyId())).isEqualTo(active.getPublic());
+        assertThat(signingKeys.getVerificationKey("unknown")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"RS256", "ES256", "EdDSA"})
+    @DisplayName("Should parse PEM encoded keys and derive a stable key id")
+    void shouldParsePemEncodedKeys(String algorithm) {
+        KeyPair generated = JwtSigningKeys.generateKeyPair(algorithm);
+        String privatePem = pem("PRIVATE KEY", generated.getPrivate().getEncoded());
+        String publicPem = pem("PUBLIC KEY", generated.getPublic().getEncoded());
+
+        KeyPair parsed = new KeyPair(JwtSigningKeys.parsePublicKey(algorithm, publicPem),
+                JwtSigningKeys.parsePrivateKey(algorithm, privatePem));
+
+        assertThat(parsed.getPublic().getEncoded()).isEqualTo(generated.getPublic().getEncoded());
+        assertThat(parsed.getPrivate().getEncoded()).isEqualTo(generated.getPrivate().getEncoded());
+        assertThat(JwtSigningKeys.asymmetric(algorithm, parsed, List.of()).getActiveKeyId())
+                .isEqualTo(JwtSigningKeys.asymmetric(algorithm, generated, List.of()).getActiveKeyId());
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
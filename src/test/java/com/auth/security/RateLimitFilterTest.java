@@ -0,0 +1,137 @@
+package com.auth.security;
+
+import com.auth.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("RateLimitFilter - Unit Tests")
+class RateLimitFilterTest {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000L);
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, true, 100);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(true, new RateLimiter(2, Duration.ofMinutes(1), 100),
+                new RateLimiter(1, Duration.ofMinutes(1), 100), verifiedTokenCache, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry);
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    @DisplayName("Should reject auth requests over the limit with 429 and retry-after")
+    void shouldRejectAuthRequestsOverLimit() throws Exception {
+        perform(request("/api/auth/login", "10.0.0.1"));
+        perform(request("/api/auth/register", "10.0.0.1"));
+
+        MockHttpServletResponse response = perform(request("/api/auth/login", "10.0.0.1"));
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(response.getContentAsString()).contains("\"error\":\"RATE_LIMITED\"");
+        assertThat(perform(request("/api/auth/login", "10.0.0.2")).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("auth.rate_limit.rejected", "policy", "auth").count()).isEqualTo(1);
+        verify(chain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should key users requests by verified subject instead of address")
+    void shouldKeyUsersRequestsByVerifiedSubject() throws Exception {
+        String alice = verifiedToken("alice@example.com");
+        String bob = verifiedToken("bob@example.com");
+
+        MockHttpServletRequest first = authorized(alice);
+        assertThat(perform(first).getStatus()).isEqualTo(200);
+        assertThat(perform(authorized(bob)).getStatus()).isEqualTo(200);
+        assertThat(perform(authorized(alice)).getStatus()).isEqualTo(429);
+        // O resultado já verificado segue para o filtro JWT
+        assertThat(first.getAttribute(VerifiedTokenCache.REQUEST_ATTRIBUTE))
+                .isInstanceOfSatisfying(VerifiedToken.class, token -> assertThat(token.subject()).isEqualTo("alice@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the address for tokens not verified yet")
+    void shouldFallBackToAddressForUnverifiedTokens() throws Exception {
+        String unverified = jwtService.generateToken(User.withUsername("alice@example.com").password("x").roles("DEFAULT").build());
+
+        assertThat(perform(authorized(unverified)).getStatus()).isEqualTo(200);
+        assertThat(perform(request("/api/users/me", "10.0.0.1")).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should keep refresh and logout available to clients sharing an exhausted address")
+    void shouldNotLimitRefreshAndLogoutForSharedAddress() throws Exception {
+        // Vários clientes atrás do mesmo proxy esgotam o balde de login do endereço compartilhado
+        perform(post("/api/auth/login", "10.0.0.1"));
+        perform(post("/api/auth/login", "10.0.0.1"));
+        assertThat(perform(post("/api/auth/login", "10.0.0.1")).getStatus()).isEqualTo(429);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform(post("/api/auth/refresh", "10.0.0.1")).getStatus()).isEqualTo(200);
+            assertThat(perform(post("/api/auth/logout", "10.0.0.1")).getStatus()).isEqualTo(200);
+        }
+        assertThat(meterRegistry.counter("auth.rate_limit.rejected", "policy", "auth").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not limit paths outside the configured groups")
+    void shouldNotLimitOtherPaths() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform(request("/actuator/health", "10.0.0.1")).getStatus()).isEqualTo(200);
+        }
+        verify(chain, times(5)).doFilter(any(), any());
+    }
+
+    private String verifiedToken(String email) {
+        String token = jwtService.generateToken(User.withUsername(email).password("x").roles("DEFAULT").build());
+        verifiedTokenCache.verify(token);
+        return token;
+    }
+
+    private MockHttpServletRequest authorized(String token) {
+        MockHttpServletRequest request = request("/api/users/me", "10.0.0.1");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static MockHttpServletRequest post(String uri, String remoteAddr) {
+        MockHttpServletRequest request = request(uri, remoteAddr);
+        request.setMethod("POST");
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package com.auth.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimiter - Unit Tests")
+class RateLimiterTest {
+
+    private AtomicLong nanoTime;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        nanoTime = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        // 3 requisições em rajada, repostas à razão de uma por segundo
+        rateLimiter = new RateLimiter(3, Duration.ofSeconds(3), 100, nanoTime::get);
+    }
+
+    @Test
+    @DisplayName("Should admit a full burst and then report the wait for the next token")
+    void shouldAdmitBurstAndReportWait() {
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.tryAcquire("10.0.0.2")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refill lazily without exceeding the capacity")
+    void shouldRefillLazilyWithoutExceedingCapacity() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("10.0.0.1");
+        }
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isPositive();
+
+        // Parado por muito mais que o período, o balde volta apenas à capacidade
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should not consume tokens for rejected requests")
+    void shouldNotConsumeTokensForRejectedRequests() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("10.0.0.1");
+        }
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+    }
+}
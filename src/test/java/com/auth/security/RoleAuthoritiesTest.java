@@ -0,0 +1,50 @@
+package com.auth.security;
+
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RoleAuthorities - Unit Tests")
+class RoleAuthoritiesTest {
+
+    @Test
+    @DisplayName("Should share one immutable authority list per role combination")
+    void shouldShareOneImmutableListPerRoleCombination() {
+        User first = new User("first@example.com", "password", "First", "User");
+        first.setRoles(Set.of(new Role(Role.RoleName.ADMIN), new Role(Role.RoleName.DEFAULT)));
+        User second = new User("second@example.com", "password", "Second", "User");
+        second.setRoles(Set.of(new Role(Role.RoleName.DEFAULT), new Role(Role.RoleName.ADMIN)));
+
+        List<GrantedAuthority> authorities = RoleAuthorities.forRoles(first.getRoles());
+
+        assertThat(second.getAuthorities()).isSameAs(authorities);
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN", "ROLE_DEFAULT");
+        assertThat(authorities.get(0)).isSameAs(RoleAuthorities.of(Role.RoleName.ADMIN));
+        assertThatThrownBy(() -> authorities.add(RoleAuthorities.of(Role.RoleName.DEFAULT)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should resolve token role claims to the same canonical list")
+    void shouldResolveTokenRoleClaimsToCanonicalList() {
+        assertThat(RoleAuthorities.forRoleNames(List.of("DEFAULT")))
+                .isSameAs(RoleAuthorities.forRoles(Set.of(new Role(Role.RoleName.DEFAULT))));
+        assertThat(RoleAuthorities.forRoleNames(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep unknown role claims as ad-hoc authorities")
+    void shouldKeepUnknownRoleClaimsAsAdHocAuthorities() {
+        assertThat(RoleAuthorities.forRoleNames(List.of("DEFAULT", "AUDITOR")))
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_DEFAULT", "ROLE_AUDITOR");
+    }
+}
@@ -0,0 +1,89 @@
+package com.auth.security;
+
+import com.auth.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("VerifiedTokenCache - Unit Tests")
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+    private static final long EXPIRATION = 3_600_000L;
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = spy(new JwtService(SECRET, EXPIRATION));
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, true, 100);
+        userDetails = User
+                .withUsername("user@example.com")
+                .password("password")
+                .roles("USER")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should verify token only once when it is requested repeatedly")
+    void shouldVerifyTokenOnlyOnceWhenRequestedRepeatedly() {
+        String token = jwtService.generateToken(userDetails);
+
+        VerifiedToken first = verifiedTokenCache.verify(token);
+        VerifiedToken second = verifiedTokenCache.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.subject()).isEqualTo("user@example.com");
+        verify(jwtService, times(1)).verify(token);
+        assertThat(verifiedTokenCache.stats().hitCount()).isEqualTo(1);
+        assertThat(verifiedTokenCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache invalid tokens")
+    void shouldNotCacheInvalidTokens() {
+        String token = jwtService.generateToken(userDetails);
+        String tokenCorrompido = token.substring(0, token.length() - 5) + "abcde";
+
+        assertThatThrownBy(() -> verifiedTokenCache.verify(tokenCorrompido)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> verifiedTokenCache.verify(tokenCorrompido)).isInstanceOf(JwtException.class);
+
+        verify(jwtService, times(2)).verify(tokenCorrompido);
+        assertThat(verifiedTokenCache.estimatedSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should verify again after token is invalidated")
+    void shouldVerifyAgainAfterTokenIsInvalidated() {
+        String token = jwtService.generateToken(userDetails);
+
+        verifiedTokenCache.verify(token);
+        verifiedTokenCache.invalidate(token);
+        verifiedTokenCache.verify(token);
+
+        verify(jwtService, times(2)).verify(token);
+    }
+
+    @Test
+    @DisplayName("Should bypass cache when disabled")
+    void shouldBypassCacheWhenDisabled() {
+        VerifiedTokenCache disabledCache = new VerifiedTokenCache(jwtService, false, 100);
+        String token = jwtService.generateToken(userDetails);
+
+        disabledCache.verify(token);
+        disabledCache.verify(token);
+
+        verify(jwtService, times(2)).verify(token);
+    }
+}
@@ -0,0 +1,157 @@
+package com.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.auth.entity.AuditEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogService - Unit Tests")
+class AuditLogServiceTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogService auditLogService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Sem start(): a fila é drenada explicitamente pelos testes
+        auditLogService = new AuditLogService(jdbcTemplate, true, 5, 2, Duration.ofSeconds(1), false, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop new events when the queue is full")
+    void shouldDropNewEventsWhenQueueIsFull() {
+        for (int i = 0; i < 7; i++) {
+            auditLogService.record(loginEvent("user" + i + "@email.com"));
+        }
+
+        assertThat(auditLogService.pending()).isEqualTo(5);
+        assertThat(meterRegistry.counter("auth.audit.dropped", "reason", "queue_full").count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.audit.queue.size").gauge().value()).isEqualTo(5);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should write the queue in batches and record the lag")
+    void shouldWriteQueueInBatchesAndRecordLag() {
+        // O tamanho é lido na chamada: a lista do lote é reaproveitada entre as gravações
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            batchSizes.add(invocation.<BatchPreparedStatementSetter>getArgument(1).getBatchSize());
+            return new int[0];
+        });
+        for (int i = 0; i < 5; i++) {
+            auditLogService.record(loginEvent("user" + i + "@email.com"));
+        }
+
+        auditLogService.drain();
+
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+        assertThat(auditLogService.pending()).isZero();
+        assertThat(meterRegistry.counter("auth.audit.written").count()).isEqualTo(5);
+        assertThat(meterRegistry.timer("auth.audit.lag").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("auth.audit.lag").totalTime(TimeUnit.NANOSECONDS)).isNotNegative();
+    }
+
+    @Test
+    @DisplayName("Should count events of a failed batch as dropped")
+    void shouldCountFailedBatchAsDropped() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("banco indisponível"));
+        auditLogService.record(loginEvent("joao@email.com"));
+        auditLogService.record(loginEvent("maria@email.com"));
+
+        auditLogService.drain();
+
+        assertThat(auditLogService.pending()).isZero();
+        assertThat(meterRegistry.counter("auth.audit.dropped", "reason", "write_error").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("auth.audit.written").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should retry a rejected batch row by row and drop only the rejected events")
+    void shouldDropOnlyEventsRejectedByDatabase() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenReturn(new int[] {1})
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        auditLogService.record(loginEvent("joao@email.com"));
+        auditLogService.record(loginEvent("maria@email.com"));
+
+        auditLogService.drain();
+
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertThat(meterRegistry.counter("auth.audit.written").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("auth.audit.dropped", "reason", "write_error").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should truncate fields longer than their columns")
+    void shouldTruncateFieldsLongerThanTheirColumns() {
+        AuditEvent event = AuditEvent.login(AuditEvent.Type.LOGIN_FAILURE, "a".repeat(400) + "@email.com", null,
+                "f".repeat(100), "d".repeat(300));
+
+        assertThat(event.getActor()).hasSize(320);
+        assertThat(event.getClientAddress()).hasSize(64);
+        assertThat(event.getDetail()).hasSize(255);
+    }
+
+    @Test
+    @DisplayName("Should enqueue events recorded inside a transaction only after commit")
+    void shouldEnqueueOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        auditLogService.record(AuditEvent.roleChange(AuditEvent.Type.ROLES_ADDED, "admin@email.com", 1L, "ADMIN"));
+        assertThat(auditLogService.pending()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(auditLogService.pending()).isEqualTo(1);
+
+        auditLogService.drain();
+        verify(jdbcTemplate).batchUpdate(eq("INSERT INTO auth_audit_events "
+                + "(occurred_at, event_type, actor, user_id, client_address, detail) VALUES (?, ?, ?, ?, ?, ?)"),
+                any(BatchPreparedStatementSetter.class));
+    }
+
+    private static AuditEvent loginEvent(String email) {
+        return AuditEvent.login(AuditEvent.Type.LOGIN_FAILURE, email, null, "203.0.113.10", "bad_credentials");
+    }
+}
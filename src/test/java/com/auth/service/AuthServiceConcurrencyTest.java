@@ -0,0 +1,99 @@
+package com.auth.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.dto.RegisterDTO;
+import com.auth.entity.Role;
+import com.auth.exception.EmailAlreadyExistsException;
+import com.auth.repository.RefreshTokenRepository;
+import com.auth.repository.RoleRepository;
+import com.auth.repository.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("AuthService - Concurrency Tests")
+class AuthServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleRepository.save(new Role(Role.RoleName.DEFAULT));
+        // o contexto é reaproveitado entre classes de teste; descarta roles de execuções anteriores
+        roleRegistry.refresh();
+    }
+
+    // Sem transação de teste os dados são commitados; o banco H2 em memória é compartilhado com os demais testes
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should create exactly one user when the same email registers concurrently")
+    void shouldCreateExactlyOneUserUnderConcurrentDuplicateRegistrations() throws Exception {
+        RegisterDTO request = new RegisterDTO("race@example.com", "senha123", "Race", "Condition");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        authService.register(request);
+                        return true;
+                    } catch (EmailAlreadyExistsException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get(30, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+
+            Assertions.assertThat(created).isEqualTo(1);
+            Assertions.assertThat(userRepository.count()).isEqualTo(1);
+            Assertions.assertThat(refreshTokenRepository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
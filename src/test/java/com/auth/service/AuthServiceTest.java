@@ -2,21 +2,31 @@ package com.auth.service;
 
 import com.auth.dto.AuthDTO;
 import com.auth.dto.LoginDTO;
+import com.auth.dto.RefreshTokenDTO;
 import com.auth.dto.RegisterDTO;
+import com.auth.entity.AuditEvent;
 import com.auth.entity.Role;
 import com.auth.entity.User;
 import com.auth.exception.EmailAlreadyExistsException;
 import com.auth.exception.InvalidCredentialsException;
+import com.auth.exception.InvalidRefreshTokenException;
+import com.auth.exception.LoginBlockedException;
+import com.auth.exception.PasswordHashingUnavailableException;
 import com.auth.exception.RoleNotFoundException;
-import com.auth.repository.RoleRepository;
 import com.auth.repository.UserRepository;
+import com.auth.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,8 +35,10 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -38,11 +50,13 @@ import static org.mockito.Mockito.*;
 @DisplayName("AuthService - Unit Tests")
 class AuthServiceTest {
 
+    private static final String CLIENT_ADDRESS = "203.0.113.10";
+
     @Mock
     private UserRepository userRepository;
     
     @Mock
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
     
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -53,12 +67,30 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
     
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    
+    @Mock
+    private LoginAttemptService loginAttemptService;
+    
+    @Mock
+    private AuditLogService auditLogService;
+    
+    @Mock
+    private ReadYourWrites readYourWrites;
+    
     @Mock
     private Authentication authentication;
     
     @Mock
     private SecurityContext securityContext;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthService authService;
 
@@ -91,10 +123,9 @@ class AuthServiceTest {
         Date expirationDate = new Date(System.currentTimeMillis() + 3600000);
         LocalDateTime expiresAt = expirationDate.toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime();
 
-        when(userRepository.existsByEmail("joao@email.com")).thenReturn(false);
-        when(roleRepository.findByName(Role.RoleName.DEFAULT)).thenReturn(Optional.of(defaultRole));
+        when(roleRegistry.find(Role.RoleName.DEFAULT)).thenReturn(Optional.of(defaultRole));
         when(passwordEncoder.encode("senha123")).thenReturn("encodedPassword123");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
         when(jwtService.generateToken(any(User.class))).thenReturn(token);
         when(jwtService.getExpirationDate()).thenReturn(expirationDate);
 
@@ -106,39 +137,51 @@ class AuthServiceTest {
         assertThat(result.lastName()).isEqualTo("Silva");
         assertThat(result.email()).isEqualTo("joao@email.com");
         assertThat(result.expiresAt()).isEqualTo(expiresAt);
-        verify(userRepository).existsByEmail("joao@email.com");
-        verify(roleRepository).findByName(Role.RoleName.DEFAULT);
+        verify(userRepository, never()).existsByEmail(any());
+        verify(roleRegistry).find(Role.RoleName.DEFAULT);
         verify(passwordEncoder).encode("senha123");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
         verify(jwtService).generateToken(any(User.class));
+        verify(readYourWrites).recordWrite(testUser);
     }
 
     @Test
     @DisplayName("Should throw exception when email already exists")
     void shouldThrowExceptionWhenEmailAlreadyExists() {
-        when(userRepository.existsByEmail("joao@email.com")).thenReturn(true);
+        when(roleRegistry.find(Role.RoleName.DEFAULT)).thenReturn(Optional.of(defaultRole));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(constraintViolation(
+                ConstraintViolationException.ConstraintKind.UNIQUE));
 
         assertThatThrownBy(() -> authService.register(registerDTO))
                 .isInstanceOf(EmailAlreadyExistsException.class)
                 .hasMessage("Este email já está em uso");
 
-        verify(userRepository).existsByEmail("joao@email.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(any());
+        verify(refreshTokenService, never()).issue(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should propagate constraint violations other than unique email")
+    void shouldPropagateNonUniqueConstraintViolations() {
+        when(roleRegistry.find(Role.RoleName.DEFAULT)).thenReturn(Optional.of(defaultRole));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(constraintViolation(
+                ConstraintViolationException.ConstraintKind.OTHER));
+
+        assertThatThrownBy(() -> authService.register(registerDTO))
+                .isInstanceOf(DataIntegrityViolationException.class);
     }
 
     @Test
     @DisplayName("Should throw exception when default role is not found")
     void shouldThrowExceptionWhenDefaultRoleNotFound() {
-        when(userRepository.existsByEmail("joao@email.com")).thenReturn(false);
-        when(roleRepository.findByName(Role.RoleName.DEFAULT)).thenReturn(Optional.empty());
+        when(roleRegistry.find(Role.RoleName.DEFAULT)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> authService.register(registerDTO))
                 .isInstanceOf(RoleNotFoundException.class)
                 .hasMessage("Função padrão não encontrada");
 
-        verify(userRepository).existsByEmail("joao@email.com");
-        verify(roleRepository).findByName(Role.RoleName.DEFAULT);
-        verify(userRepository, never()).save(any(User.class));
+        verify(roleRegistry).find(Role.RoleName.DEFAULT);
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -153,8 +196,9 @@ class AuthServiceTest {
         when(authentication.getPrincipal()).thenReturn(testUser);
         when(jwtService.generateToken(testUser)).thenReturn(token);
         when(jwtService.getExpirationDate()).thenReturn(expirationDate);
+        when(refreshTokenService.issue(testUser)).thenReturn("refresh-token-123");
 
-        AuthDTO result = authService.login(loginDTO);
+        AuthDTO result = authService.login(loginDTO, CLIENT_ADDRESS);
 
         assertThat(result).isNotNull();
         assertThat(result.token()).isEqualTo(token);
@@ -162,9 +206,43 @@ class AuthServiceTest {
         assertThat(result.firstName()).isEqualTo("João");
         assertThat(result.lastName()).isEqualTo("Silva");
         assertThat(result.expiresAt()).isEqualTo(expiresAt);
+        assertThat(result.refreshToken()).isEqualTo("refresh-token-123");
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtService).generateToken(testUser);
+        verify(loginAttemptService).recordSuccess("joao@email.com");
+        verify(auditLogService).record(argThat(event -> event.getType() == AuditEvent.Type.LOGIN_SUCCESS
+                && event.getUserId().equals(1L) && CLIENT_ADDRESS.equals(event.getClientAddress())));
+        assertThat(loginCount("success")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should issue new token pair when refresh token is rotated")
+    void shouldIssueNewTokenPairWhenRefreshTokenIsRotated() {
+        Date expirationDate = new Date(System.currentTimeMillis() + 3600000);
+        when(refreshTokenService.rotate("refresh-old"))
+                .thenReturn(new RefreshTokenService.RotatedRefreshToken(testUser, "refresh-new"));
+        when(jwtService.generateToken(testUser)).thenReturn("jwt-token-456");
+        when(jwtService.getExpirationDate()).thenReturn(expirationDate);
+
+        AuthDTO result = authService.refresh(new RefreshTokenDTO("refresh-old"));
+
+        assertThat(result.token()).isEqualTo("jwt-token-456");
+        assertThat(result.refreshToken()).isEqualTo("refresh-new");
+        assertThat(result.email()).isEqualTo("joao@email.com");
+        verifyNoInteractions(authenticationManager, passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("Should not issue access token when refresh token is rejected")
+    void shouldNotIssueAccessTokenWhenRefreshTokenIsRejected() {
+        when(refreshTokenService.rotate("refresh-reused"))
+                .thenThrow(new InvalidRefreshTokenException("Refresh token inválido ou expirado"));
+
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenDTO("refresh-reused")))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        verify(jwtService, never()).generateToken(any(User.class));
     }
 
     @Test
@@ -173,12 +251,57 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenThrow(new BadCredentialsException("Credenciais inválidas"));
 
-        assertThatThrownBy(() -> authService.login(loginDTO))
+        assertThatThrownBy(() -> authService.login(loginDTO, CLIENT_ADDRESS))
                 .isInstanceOf(InvalidCredentialsException.class)
                 .hasMessage("Credenciais inválidas");
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtService, never()).generateToken(any(User.class));
+        verify(loginAttemptService).recordFailure("joao@email.com", CLIENT_ADDRESS);
+        verify(auditLogService).record(argThat(event -> event.getType() == AuditEvent.Type.LOGIN_FAILURE
+                && "bad_credentials".equals(event.getDetail())));
+        assertThat(loginCount("bad_credentials")).isEqualTo(1);
+        assertThat(loginCount("success")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject blocked login before authenticating")
+    void shouldRejectBlockedLoginBeforeAuthenticating() {
+        doThrow(new LoginBlockedException("Muitas tentativas de login", 60))
+                .when(loginAttemptService).checkAllowed("joao@email.com", CLIENT_ADDRESS);
+
+        assertThatThrownBy(() -> authService.login(loginDTO, CLIENT_ADDRESS))
+                .isInstanceOf(LoginBlockedException.class);
+
+        verifyNoInteractions(authenticationManager, refreshTokenService);
+        verify(loginAttemptService, never()).recordFailure(anyString(), anyString());
+        assertThat(loginCount("blocked")).isEqualTo(1);
+        verify(auditLogService).record(argThat(event -> event.getType() == AuditEvent.Type.LOGIN_BLOCKED));
+    }
+
+    @Test
+    @DisplayName("Should count login rejected by password hashing overload")
+    void shouldCountLoginRejectedByPasswordHashingOverload() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new PasswordHashingUnavailableException("Serviço sobrecarregado", 1));
+
+        assertThatThrownBy(() -> authService.login(loginDTO, CLIENT_ADDRESS))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+
+        assertThat(loginCount("overloaded")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should revoke access token and refresh token family on logout")
+    void shouldRevokeAccessTokenAndRefreshTokenFamilyOnLogout() {
+        VerifiedToken verifiedToken = new VerifiedToken("joao@email.com", "jti-1", 1L, List.of("DEFAULT"), 0L,
+                new Date(), new Date(System.currentTimeMillis() + 3600000), null);
+        when(jwtService.verify("jwt-token-123")).thenReturn(verifiedToken);
+
+        authService.logout("jwt-token-123", "refresh-token-123");
+
+        verify(tokenRevocationService).revokeToken(verifiedToken);
+        verify(refreshTokenService).revokeFamily("refresh-token-123", 1L);
     }
 
     @Test
@@ -204,4 +327,13 @@ class AuthServiceTest {
 
         assertThat(result).isNull();
     }
+
+    private static DataIntegrityViolationException constraintViolation(ConstraintViolationException.ConstraintKind kind) {
+        return new DataIntegrityViolationException("constraint violation",
+                new ConstraintViolationException("constraint violation", new SQLException(), null, kind, "users_email_key"));
+    }
+
+    private double loginCount(String outcome) {
+        return meterRegistry.counter("auth.login", "outcome", outcome).count();
+    }
 }
@@ -1,14 +1,23 @@
 package com.auth.service;
 
+import com.auth.entity.Role;
+import com.auth.security.JwtPrincipal;
+import com.auth.security.JwtSigningKeys;
+import com.auth.security.VerifiedToken;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.security.KeyPair;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,9 +34,7 @@ class JwtServiceTest {
 
     @BeforeEach
     void setUp() {
-        jwtService = new com.auth.service.JwtService();
-        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
-        ReflectionTestUtils.setField(jwtService, "expiration", EXPIRATION);
+        jwtService = new com.auth.service.JwtService(SECRET, EXPIRATION);
 
         userDetails = User
                 .withUsername("user@example.com")
@@ -61,12 +68,27 @@ class JwtServiceTest {
         assertThat(jwtService.validateToken(token)).isTrue();
     }
 
+    @Test
+    @DisplayName("Should time signing and verification by outcome")
+    void shouldTimeSigningAndVerificationByOutcome() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        com.auth.service.JwtService meteredService = new com.auth.service.JwtService(
+                JwtSigningKeys.hmac(SECRET), -1_000L, meterRegistry);
+
+        String expiredToken = meteredService.generateToken(userDetails);
+        meteredService.validateToken(expiredToken);
+        meteredService.validateToken("not-a-jwt");
+
+        assertThat(meterRegistry.timer("auth.jwt", "operation", "sign", "outcome", "success").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("auth.jwt", "operation", "verify", "outcome", "expired").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("auth.jwt", "operation", "verify", "outcome", "invalid").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("auth.jwt", "operation", "verify", "outcome", "valid").count()).isZero();
+    }
+
     @Test
     @DisplayName("Should throw exception when validating expired token")
     void shouldThrowExceptionWhenValidatingExpiredToken() {
-        com.auth.service.JwtService expiredJwtService = new com.auth.service.JwtService();
-        ReflectionTestUtils.setField(expiredJwtService, "secret", SECRET);
-        ReflectionTestUtils.setField(expiredJwtService, "expiration", -1_000L);
+        com.auth.service.JwtService expiredJwtService = new com.auth.service.JwtService(SECRET, -1_000L);
 
         String tokenExpirado = expiredJwtService.generateToken(userDetails);
 
@@ -84,6 +106,61 @@ class JwtServiceTest {
         assertThat(jwtService.validateToken(tokenCorrompido)).isFalse();
     }
 
+    @Test
+    @DisplayName("Should build principal from embedded user claims")
+    void shouldBuildPrincipalFromEmbeddedUserClaims() {
+        com.auth.entity.User user = new com.auth.entity.User("user@example.com", "password", "Test", "User");
+        user.setId(42L);
+        user.setSecurityVersion(3L);
+        user.addRole(new Role(Role.RoleName.ADMIN));
+
+        String token = jwtService.generateToken(user);
+
+        JwtPrincipal principal = jwtService.extractPrincipal(token).orElseThrow();
+        assertThat(principal.id()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo("user@example.com");
+        assertThat(principal.securityVersion()).isEqualTo(3L);
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("Should decode all claims in a single verification")
+    void shouldDecodeAllClaimsInSingleVerification() {
+        com.auth.entity.User user = new com.auth.entity.User("user@example.com", "password", "Test", "User");
+        user.setId(7L);
+        user.addRole(new Role(Role.RoleName.DEFAULT));
+
+        VerifiedToken verifiedToken = jwtService.verify(jwtService.generateToken(user));
+
+        assertThat(verifiedToken.subject()).isEqualTo("user@example.com");
+        assertThat(verifiedToken.userId()).isEqualTo(7L);
+        assertThat(verifiedToken.roles()).containsExactly("DEFAULT");
+        assertThat(verifiedToken.securityVersion()).isZero();
+        assertThat(verifiedToken.tokenId()).isNotBlank()
+                .isNotEqualTo(jwtService.verify(jwtService.generateToken(user)).tokenId());
+        assertThat(verifiedToken.isExpired()).isFalse();
+        assertThat(verifiedToken.belongsTo(user)).isTrue();
+        assertThat(verifiedToken.belongsTo(userDetails)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should throw exception when verifying corrupted token")
+    void shouldThrowExceptionWhenVerifyingCorruptedToken() {
+        String tokenValido = jwtService.generateToken(userDetails);
+        String tokenCorrompido = tokenValido.substring(0, tokenValido.length() - 5) + "abcde";
+
+        assertThatThrownBy(() -> jwtService.verify(tokenCorrompido))
+                .isInstanceOf(io.jsonwebtoken.JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should return empty principal when token has no user claims")
+    void shouldReturnEmptyPrincipalWhenTokenHasNoUserClaims() {
+        String token = jwtService.generateToken(userDetails);
+
+        assertThat(jwtService.extractPrincipal(token)).isEmpty();
+    }
+
     @Test
     @DisplayName("Should return a future expiration date")
     void shouldReturnFutureExpirationDate() {
@@ -92,4 +169,34 @@ class JwtServiceTest {
         long diff = expirationDate.getTime() - System.currentTimeMillis();
         assertThat(diff).isBetween(EXPIRATION - 2_000L, EXPIRATION + 2_000L);
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"RS256", "ES256", "EdDSA"})
+    @DisplayName("Should sign with asymmetric key and verify using the public key")
+    void shouldSignWithAsymmetricKeyAndVerifyUsingPublicKey(String algorithm) {
+        JwtSigningKeys signingKeys = JwtSigningKeys.asymmetric(algorithm, JwtSigningKeys.generateKeyPair(algorithm), List.of());
+        JwtService asymmetricService = new JwtService(signingKeys, EXPIRATION);
+
+        VerifiedToken verifiedToken = asymmetricService.verify(asymmetricService.generateToken(userDetails));
+
+        assertThat(verifiedToken.subject()).isEqualTo("user@example.com");
+        assertThatThrownBy(() -> jwtService.verify(asymmetricService.generateToken(userDetails)))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep verifying tokens signed by a rotated key listed as additional key")
+    void shouldVerifyTokensSignedByRotatedKey() {
+        KeyPair previousKeyPair = JwtSigningKeys.generateKeyPair("ES256");
+        KeyPair currentKeyPair = JwtSigningKeys.generateKeyPair("ES256");
+        JwtService previousService = new JwtService(JwtSigningKeys.asymmetric("ES256", previousKeyPair, List.of()), EXPIRATION);
+        String tokenBeforeRotation = previousService.generateToken(userDetails);
+
+        JwtService rotatedService = new JwtService(
+                JwtSigningKeys.asymmetric("ES256", currentKeyPair, List.of(previousKeyPair.getPublic())), EXPIRATION);
+        JwtService withoutPreviousKey = new JwtService(JwtSigningKeys.asymmetric("ES256", currentKeyPair, List.of()), EXPIRATION);
+
+        assertThat(rotatedService.verify(tokenBeforeRotation).subject()).isEqualTo("user@example.com");
+        assertThatThrownBy(() -> withoutPreviousKey.verify(tokenBeforeRotation)).isInstanceOf(JwtException.class);
+    }
 }
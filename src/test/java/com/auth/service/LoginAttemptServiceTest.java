@@ -0,0 +1,235 @@
+package com.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.auth.entity.LoginLockout;
+import com.auth.exception.LoginBlockedException;
+import com.auth.repository.LoginLockoutRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginAttemptService - Unit Tests")
+class LoginAttemptServiceTest {
+
+    private static final String EMAIL = "joao@email.com";
+    private static final String CLIENT_ADDRESS = "203.0.113.10";
+
+    @Mock
+    LoginLockoutRepository loginLockoutRepository;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 falhas por conta e 10 por origem em 10 min; bloqueio de 1 min dobrando até 4 min
+        loginAttemptService = new LoginAttemptService(loginLockoutRepository, jdbcTemplate, true, 3, 10, Duration.ofMinutes(10),
+                Duration.ofMinutes(1), Duration.ofMinutes(4), 1000, meterRegistry, clock);
+    }
+
+    @Test
+    @DisplayName("Should block account after max failures with retry-after")
+    void shouldBlockAccountAfterMaxFailures() {
+        recordFailures(EMAIL, 2);
+        assertThatCode(() -> loginAttemptService.checkAllowed(EMAIL, CLIENT_ADDRESS)).doesNotThrowAnyException();
+
+        loginAttemptService.recordFailure(EMAIL, CLIENT_ADDRESS);
+
+        assertThatThrownBy(() -> loginAttemptService.checkAllowed("JOAO@email.com", "198.51.100.1"))
+                .isInstanceOf(LoginBlockedException.class)
+                .extracting("retryAfterSeconds").isEqualTo(60L);
+        assertThat(meterRegistry.counter("auth.login.lockouts", "scope", "account").count()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(61));
+        assertThatCode(() -> loginAttemptService.checkAllowed(EMAIL, CLIENT_ADDRESS)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should double lockout duration on each new lockout up to the maximum")
+    void shouldDoubleLockoutDurationUpToMaximum() {
+        long[] expectedSeconds = {60, 120, 240, 240};
+        for (long expected : expectedSeconds) {
+            recordFailures(EMAIL, 3);
+            assertThatThrownBy(() -> loginAttemptService.checkAllowed(EMAIL, null))
+                    .isInstanceOf(LoginBlockedException.class)
+                    .extracting("retryAfterSeconds").isEqualTo(expected);
+            clock.advance(Duration.ofSeconds(expected));
+        }
+    }
+
+    @Test
+    @DisplayName("Should let old failures slide out of the window")
+    void shouldLetOldFailuresSlideOutOfWindow() {
+        recordFailures(EMAIL, 2);
+
+        // Duas janelas depois as falhas anteriores não contam mais
+        clock.advance(Duration.ofMinutes(20));
+        recordFailures(EMAIL, 2);
+
+        assertThatCode(() -> loginAttemptService.checkAllowed(EMAIL, CLIENT_ADDRESS)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should block source spraying many accounts and keep it blocked after a success")
+    void shouldBlockSourceSprayingManyAccounts() {
+        for (int i = 0; i < 10; i++) {
+            loginAttemptService.recordFailure("user" + i + "@email.com", CLIENT_ADDRESS);
+        }
+        loginAttemptService.recordSuccess(EMAIL);
+
+        assertThatThrownBy(() -> loginAttemptService.checkAllowed(EMAIL, CLIENT_ADDRESS))
+                .isInstanceOf(LoginBlockedException.class);
+        assertThatCode(() -> loginAttemptService.checkAllowed(EMAIL, "198.51.100.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should reset account failures on success")
+    void shouldResetAccountFailuresOnSuccess() {
+        recordFailures(EMAIL, 2);
+        loginAttemptService.recordSuccess(EMAIL);
+        recordFailures(EMAIL, 2);
+
+        assertThatCode(() -> loginAttemptService.checkAllowed(EMAIL, CLIENT_ADDRESS)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should persist lockouts write-behind in one upsert batch and restore them on startup")
+    void shouldPersistLockoutsAndRestoreThemOnStartup() throws SQLException {
+        recordFailures(EMAIL, 3);
+        recordFailures("maria@email.com", 3);
+        assertThat(loginAttemptService.pendingCount()).isEqualTo(2);
+
+        loginAttemptService.flush();
+
+        ArgumentCaptor<BatchPreparedStatementSetter> captor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(contains("ON CONFLICT (throttle_key) DO UPDATE"), captor.capture());
+        verify(loginLockoutRepository, never()).saveAll(anyList());
+        assertThat(captor.getValue().getBatchSize()).isEqualTo(2);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            captor.getValue().setValues(statement, i);
+            ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+            verify(statement).setString(eq(1), key.capture());
+            verify(statement).setInt(2, 1);
+            keys.add(key.getValue());
+        }
+        assertThat(keys).containsExactlyInAnyOrder(LoginAttemptService.accountKey(EMAIL),
+                LoginAttemptService.accountKey("maria@email.com"));
+        assertThat(keys).allSatisfy(key -> assertThat(key).hasSize("account:".length() + 64).doesNotContain("@"));
+        assertThat(loginAttemptService.pendingCount()).isZero();
+
+        LoginLockout saved = new LoginLockout(LoginAttemptService.accountKey(EMAIL), 1,
+                LocalDateTime.ofInstant(clock.instant().plus(Duration.ofMinutes(1)), ZoneId.systemDefault()));
+
+        LoginAttemptService restarted = new LoginAttemptService(loginLockoutRepository, jdbcTemplate, true, 3, 10,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofMinutes(4), 1000, meterRegistry, clock);
+        when(loginLockoutRepository.findActive(any(LocalDateTime.class))).thenReturn(List.of(saved));
+        restarted.loadLockouts();
+
+        assertThatThrownBy(() -> restarted.checkAllowed(EMAIL, CLIENT_ADDRESS))
+                .isInstanceOf(LoginBlockedException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep pending lockouts when persisting fails")
+    void shouldKeepPendingLockoutsWhenPersistingFails() {
+        recordFailures(EMAIL, 3);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new IllegalStateException("banco indisponível"));
+
+        loginAttemptService.flush();
+
+        assertThat(loginAttemptService.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should retry rows individually and drop only the one rejected by the database")
+    void shouldDropOnlyLockoutRejectedByDatabase() {
+        recordFailures(EMAIL, 3);
+        recordFailures("maria@email.com", 3);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenReturn(new int[] {1});
+
+        loginAttemptService.flush();
+
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertThat(loginAttemptService.pendingCount()).isZero();
+    }
+
+    private void recordFailures(String email, int count) {
+        for (int i = 0; i < count; i++) {
+            loginAttemptService.recordFailure(email, CLIENT_ADDRESS);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
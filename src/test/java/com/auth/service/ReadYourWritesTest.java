@@ -0,0 +1,102 @@
+package com.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.auth.config.ReplicaRoutingDataSource;
+import com.auth.entity.User;
+
+@DisplayName("ReadYourWrites - Unit Tests")
+class ReadYourWritesTest {
+
+    private static final String EMAIL = "joao@email.com";
+
+    private ReadYourWrites readYourWrites;
+    private User user;
+    // Para cada consulta executada: se ela rodou fixada no primário
+    private final List<Boolean> pinnedQueries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWrites(true, Duration.ofSeconds(5), Duration.ofSeconds(5), 100);
+        user = new User(EMAIL, "hash", "João", "Silva");
+        user.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should pin reads of a recently written user to the primary by email and id")
+    void shouldPinReadsOfRecentlyWrittenUser() {
+        readYourWrites.recordWrite(user);
+
+        readYourWrites.read(EMAIL, this::query);
+        readYourWrites.read(7L, this::query);
+        readYourWrites.read("maria@email.com", this::query);
+        readYourWrites.read(8L, this::query);
+
+        assertThat(pinnedQueries).containsExactly(true, true, false, false);
+    }
+
+    @Test
+    @DisplayName("Should start the read-your-writes window only after commit")
+    void shouldRecordWriteAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        readYourWrites.recordWrite(user);
+
+        readYourWrites.read(EMAIL, this::query);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        readYourWrites.read(EMAIL, this::query);
+
+        assertThat(pinnedQueries).containsExactly(false, true);
+    }
+
+    @Test
+    @DisplayName("Should confirm on the primary a user missing from the replica")
+    void shouldConfirmMissingUserOnPrimary() {
+        Optional<User> found = readYourWrites.findUser(EMAIL, () -> {
+            boolean pinned = query();
+            return pinned ? Optional.of(user) : Optional.empty();
+        });
+
+        assertThat(found).contains(user);
+        assertThat(pinnedQueries).containsExactly(false, true);
+    }
+
+    @Test
+    @DisplayName("Should only run the query when replicas are disabled")
+    void shouldOnlyRunQueryWhenDisabled() {
+        ReadYourWrites disabled = new ReadYourWrites(false, Duration.ofSeconds(5), Duration.ofSeconds(5), 100);
+        disabled.recordWrite(user);
+
+        disabled.read(EMAIL, this::query);
+        assertThat(disabled.findUser(EMAIL, () -> {
+            query();
+            return Optional.empty();
+        })).isEmpty();
+
+        assertThat(pinnedQueries).containsExactly(false, false);
+    }
+
+    private boolean query() {
+        boolean pinned = ReplicaRoutingDataSource.isPrimaryPinned();
+        pinnedQueries.add(pinned);
+        return pinned;
+    }
+}
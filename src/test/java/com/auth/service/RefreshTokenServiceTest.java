@@ -0,0 +1,128 @@
+package com.auth.service;
+
+import com.auth.entity.RefreshToken;
+import com.auth.entity.User;
+import com.auth.exception.InvalidRefreshTokenException;
+import com.auth.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService - Unit Tests")
+class RefreshTokenServiceTest {
+
+    private static final long REFRESH_EXPIRATION = 86400000L;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private User testUser;
+    private UUID familyId;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, REFRESH_EXPIRATION);
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("joao@email.com");
+        familyId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should store only the hash of issued refresh token")
+    void shouldStoreOnlyHashOfIssuedRefreshToken() {
+        String rawToken = refreshTokenService.issue(testUser);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+        assertThat(stored.getTokenHash()).isEqualTo(RefreshTokenService.hash(rawToken)).isNotEqualTo(rawToken);
+        assertThat(stored.getUser()).isSameAs(testUser);
+        assertThat(stored.getFamilyId()).isNotNull();
+        assertThat(stored.getExpiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should rotate refresh token within the same family")
+    void shouldRotateRefreshTokenWithinSameFamily() {
+        RefreshToken current = storedToken("old-token", LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("old-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markUsed(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate("old-token");
+
+        assertThat(rotated.user()).isSameAs(testUser);
+        assertThat(rotated.refreshToken()).isNotEqualTo("old-token");
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertThat(captor.getValue().getFamilyId()).isEqualTo(familyId);
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should revoke whole family when a used refresh token is presented again")
+    void shouldRevokeFamilyWhenUsedRefreshTokenIsReused() {
+        RefreshToken current = storedToken("old-token", LocalDateTime.now().plusDays(1));
+        current.setRevokedAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("old-token")))
+                .thenReturn(Optional.of(current));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("old-token"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("Should revoke whole family when a concurrent rotation already consumed the token")
+    void shouldRevokeFamilyWhenConcurrentRotationConsumedToken() {
+        RefreshToken current = storedToken("old-token", LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("old-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markUsed(eq(10L), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("old-token"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should reject expired or unknown refresh tokens")
+    void shouldRejectExpiredOrUnknownRefreshTokens() {
+        RefreshToken expired = storedToken("expired-token", LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("expired-token")))
+                .thenReturn(Optional.of(expired));
+        when(refreshTokenRepository.markUsed(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("unknown-token")))
+                .thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("expired-token"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown-token"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    private RefreshToken storedToken(String rawToken, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken(testUser, RefreshTokenService.hash(rawToken), familyId, expiresAt);
+        token.setId(10L);
+        return token;
+    }
+}
@@ -0,0 +1,74 @@
+package com.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.auth.entity.Role;
+import com.auth.repository.RoleRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoleRegistry - Unit Tests")
+class RoleRegistryTest {
+
+    @Mock
+    RoleRepository roleRepository;
+
+    private RoleRegistry roleRegistry;
+    private Role defaultRole;
+    private Role adminRole;
+
+    @BeforeEach
+    void setUp() {
+        roleRegistry = new RoleRegistry(roleRepository);
+        defaultRole = new Role(Role.RoleName.DEFAULT);
+        adminRole = new Role(Role.RoleName.ADMIN);
+    }
+
+    @Test
+    @DisplayName("Should serve roles from memory after the startup load")
+    void shouldServeRolesFromMemoryAfterStartupLoad() {
+        when(roleRepository.findAll()).thenReturn(List.of(defaultRole, adminRole));
+
+        roleRegistry.refresh();
+
+        assertThat(roleRegistry.find(Role.RoleName.DEFAULT)).containsSame(defaultRole);
+        assertThat(roleRegistry.findAll(EnumSet.allOf(Role.RoleName.class))).containsExactlyInAnyOrder(defaultRole, adminRole);
+        assertThat(roleRegistry.find(Role.RoleName.DEFAULT)).containsSame(defaultRole);
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reload when a requested role is missing")
+    void shouldReloadWhenRequestedRoleIsMissing() {
+        when(roleRepository.findAll()).thenReturn(List.of(defaultRole), List.of(defaultRole, adminRole));
+
+        roleRegistry.refresh();
+
+        assertThat(roleRegistry.find(Role.RoleName.ADMIN)).containsSame(adminRole);
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should return only existing roles when some are missing")
+    void shouldReturnOnlyExistingRolesWhenSomeAreMissing() {
+        when(roleRepository.findAll()).thenReturn(List.of(defaultRole));
+
+        Set<Role> found = roleRegistry.findAll(EnumSet.allOf(Role.RoleName.class));
+
+        assertThat(found).containsExactly(defaultRole);
+        assertThat(roleRegistry.find(Role.RoleName.ADMIN)).isEmpty();
+    }
+}
@@ -0,0 +1,155 @@
+package com.auth.service;
+
+import com.auth.entity.TokenRevocation;
+import com.auth.entity.User;
+import com.auth.exception.UserNotFoundException;
+import com.auth.repository.TokenRevocationRepository;
+import com.auth.repository.UserRepository;
+import com.auth.security.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService - Unit Tests")
+class TokenRevocationServiceTest {
+
+    private static final long ACCESS_TOKEN_EXPIRATION = 3600000L;
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(tokenRevocationRepository, userRepository,
+                userDetailsCache, refreshTokenService, readYourWrites, ACCESS_TOKEN_EXPIRATION, true);
+    }
+
+    @Test
+    @DisplayName("Should not report tokens as revoked when snapshot is empty")
+    void shouldNotReportTokensAsRevokedWhenSnapshotIsEmpty() {
+        assertThat(tokenRevocationService.isRevoked(token("jti-1", 1L, 0L))).isFalse();
+        assertThat(tokenRevocationService.isRevoked(token(null, null, null))).isFalse();
+        verifyNoInteractions(tokenRevocationRepository);
+    }
+
+    @Test
+    @DisplayName("Should revoke only the logged out token")
+    void shouldRevokeOnlyLoggedOutToken() {
+        VerifiedToken loggedOut = token("jti-1", 1L, 0L);
+
+        tokenRevocationService.revokeToken(loggedOut);
+
+        ArgumentCaptor<TokenRevocation> captor = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(tokenRevocationRepository).save(captor.capture());
+        assertThat(captor.getValue().getTokenId()).isEqualTo("jti-1");
+        assertThat(tokenRevocationService.isRevoked(loggedOut)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(token("jti-2", 1L, 0L))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should revoke all tokens issued before the new security version")
+    void shouldRevokeAllTokensIssuedBeforeNewSecurityVersion() {
+        User user = new User("joao@email.com", "encoded", "João", "Silva");
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        tokenRevocationService.revokeAllSessions(1L);
+
+        assertThat(user.getSecurityVersion()).isEqualTo(1L);
+        assertThat(tokenRevocationService.isRevoked(token("jti-1", 1L, 0L))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(token("jti-2", 1L, 1L))).isFalse();
+        assertThat(tokenRevocationService.isRevoked(token("jti-3", 2L, 0L))).isFalse();
+        verify(refreshTokenService).revokeAllForUser(1L);
+        verify(userDetailsCache).evict("joao@email.com");
+        verify(readYourWrites).recordWrite(user);
+    }
+
+    @Test
+    @DisplayName("Should revoke tokens on role changes only in stateless mode")
+    void shouldRevokeTokensOnRoleChangesOnlyInStatelessMode() {
+        User user = new User("joao@email.com", "encoded", "João", "Silva");
+        user.setId(1L);
+        TokenRevocationService statefulService = new TokenRevocationService(tokenRevocationRepository, userRepository,
+                userDetailsCache, refreshTokenService, readYourWrites, ACCESS_TOKEN_EXPIRATION, false);
+
+        statefulService.onRolesChanged(user);
+
+        assertThat(user.getSecurityVersion()).isZero();
+        verify(tokenRevocationRepository, never()).save(any());
+
+        tokenRevocationService.onRolesChanged(user);
+
+        assertThat(user.getSecurityVersion()).isEqualTo(1L);
+        assertThat(tokenRevocationService.isRevoked(token("jti-1", 1L, 0L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should throw exception when revoking sessions of unknown user")
+    void shouldThrowExceptionWhenRevokingSessionsOfUnknownUser() {
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> tokenRevocationService.revokeAllSessions(99L))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(tokenRevocationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should load revocations persisted by other instances on refresh")
+    void shouldLoadRevocationsPersistedByOtherInstancesOnRefresh() {
+        when(tokenRevocationRepository.findActiveTokenIds(any(LocalDateTime.class))).thenReturn(List.of("jti-9"));
+        when(tokenRevocationRepository.findActiveUserRevocations(any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[] {5L, 3L}));
+
+        tokenRevocationService.refreshSnapshot();
+
+        assertThat(tokenRevocationService.isRevoked(token("jti-9", 1L, 0L))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(token("jti-1", 5L, 2L))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(token("jti-1", 5L, 3L))).isFalse();
+        assertThat(tokenRevocationService.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep previous snapshot when refresh fails")
+    void shouldKeepPreviousSnapshotWhenRefreshFails() {
+        tokenRevocationService.revokeToken(token("jti-1", 1L, 0L));
+        when(tokenRevocationRepository.findActiveTokenIds(any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        tokenRevocationService.refreshSnapshot();
+
+        assertThat(tokenRevocationService.isRevoked(token("jti-1", 1L, 0L))).isTrue();
+    }
+
+    private static VerifiedToken token(String tokenId, Long userId, Long securityVersion) {
+        return new VerifiedToken("joao@email.com", tokenId, userId, List.of("DEFAULT"), securityVersion,
+                new Date(), new Date(System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION), null);
+    }
+}
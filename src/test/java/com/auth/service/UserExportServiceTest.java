@@ -0,0 +1,114 @@
+package com.auth.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.config.NoFlywayTestConfig;
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.repository.RoleRepository;
+import com.auth.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("UserExportService - Unit Tests")
+@Import(NoFlywayTestConfig.class)
+@ActiveProfiles("test")
+class UserExportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        // fetch size pequeno para que o cursor precise de várias idas ao banco
+        userExportService = new UserExportService(jdbcTemplate, objectMapper, 2);
+
+        Role adminRole = roleRepository.save(new Role(Role.RoleName.ADMIN));
+        Role defaultRole = roleRepository.save(new Role(Role.RoleName.DEFAULT));
+
+        User admin = new User("admin@example.com", "password", "Ada", "Lovelace");
+        admin.setRoles(Set.of(adminRole, defaultRole));
+        userRepository.save(admin);
+
+        User quoted = new User("quoted@example.com", "password", "Smith, \"Jr\"", "Last");
+        quoted.setRoles(Set.of(defaultRole));
+        userRepository.save(quoted);
+
+        userRepository.saveAndFlush(new User("noroles@example.com", "password", "No", "Roles"));
+    }
+
+    @Test
+    @DisplayName("Should export one JSON object per line ordered by id with roles aggregated")
+    void shouldExportNdjson() throws Exception {
+        String[] lines = export(UserExportService.Format.NDJSON).split("\n");
+
+        Assertions.assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        Assertions.assertThat(first.get("email").asText()).isEqualTo("admin@example.com");
+        Assertions.assertThat(first.get("firstName").asText()).isEqualTo("Ada");
+        Assertions.assertThat(first.get("roles")).extracting(JsonNode::asText).containsExactly("ADMIN", "DEFAULT");
+        Assertions.assertThat(first.has("password")).isFalse();
+        Assertions.assertThat(first.get("createdAt").isNull()).isFalse();
+
+        Assertions.assertThat(objectMapper.readTree(lines[1]).get("firstName").asText()).isEqualTo("Smith, \"Jr\"");
+        Assertions.assertThat(objectMapper.readTree(lines[2]).get("roles")).isEmpty();
+        Assertions.assertThat(objectMapper.readTree(lines[0]).get("id").asLong())
+                .isLessThan(objectMapper.readTree(lines[2]).get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("Should export CSV with header and RFC 4180 quoting")
+    void shouldExportCsv() {
+        String[] lines = export(UserExportService.Format.CSV).split("\n");
+
+        Assertions.assertThat(lines).hasSize(4);
+        Assertions.assertThat(lines[0]).isEqualTo("id,email,firstName,lastName,roles,createdAt,updatedAt");
+        Assertions.assertThat(lines[1]).contains(",admin@example.com,Ada,Lovelace,\"ADMIN,DEFAULT\",");
+        Assertions.assertThat(lines[2]).contains(",quoted@example.com,\"Smith, \"\"Jr\"\"\",Last,DEFAULT,");
+        Assertions.assertThat(lines[3]).contains(",noroles@example.com,No,Roles,,");
+    }
+
+    @Test
+    @DisplayName("Should neutralize values that a spreadsheet would read as formulas")
+    void shouldNeutralizeFormulasInCsv() {
+        userRepository.saveAndFlush(new User("formula@example.com", "password", "=HYPERLINK(\"http://x\",\"y\")", "@SUM(A1)"));
+        userRepository.saveAndFlush(new User("signs@example.com", "password", "+1", "-2"));
+
+        String csv = export(UserExportService.Format.CSV);
+
+        Assertions.assertThat(csv).contains(",formula@example.com,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'@SUM(A1),");
+        Assertions.assertThat(csv).contains(",signs@example.com,'+1,'-2,");
+        // NDJSON não passa por planilha: o valor segue intacto
+        Assertions.assertThat(export(UserExportService.Format.NDJSON)).contains("\"firstName\":\"+1\"");
+    }
+
+    private String export(UserExportService.Format format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        userExportService.export(format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,199 @@
+package com.auth.service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.auth.config.NoFlywayTestConfig;
+import com.auth.dto.UserImportReportDTO;
+import com.auth.dto.UserImportRowDTO;
+import com.auth.entity.Role;
+import com.auth.entity.User;
+import com.auth.repository.RoleRepository;
+import com.auth.repository.UserRepository;
+import com.auth.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("UserImportService - Unit Tests")
+@Import(NoFlywayTestConfig.class)
+@ActiveProfiles("test")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private BoundedPasswordEncoder passwordEncoder;
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 8,
+            Duration.ofSeconds(5), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        // blocos de 2 linhas para exercitar vários batches com poucos dados
+        userImportService = new UserImportService(userRepository, new RoleRegistry(roleRepository), passwordEncoder, jdbcTemplate,
+            transactionManager, new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), 2);
+        roleRepository.save(new Role(Role.RoleName.DEFAULT));
+        userRepository.saveAndFlush(new User("existing@example.com", "hash", "Existing", "User"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and report per-row results")
+    void shouldImportNdjsonAndReportPerRowResults() {
+        String body = """
+            {"email":"a@example.com","password":"secret-a","firstName":"Ana","lastName":"A"}
+            {"email":"existing@example.com","password":"secret-x","firstName":"Ex","lastName":"X"}
+            {"email":"not-an-email","password":"123","firstName":"Bad","lastName":"Row"}
+            {"email":"b@example.com","password":"secret-b","firstName":"Bia","lastName":"B"}
+            {"email":"b@example.com","password":"secret-b","firstName":"Bia","lastName":"B"}
+            {"email":"c@example.com","password":"secret-c","firstName":"Caio","lastName":"C"}
+            """;
+
+        UserImportReportDTO report = userImportService.importUsers(stream(body));
+
+        Assertions.assertThat(report.total()).isEqualTo(6);
+        Assertions.assertThat(report.created()).isEqualTo(3);
+        Assertions.assertThat(report.duplicates()).isEqualTo(2);
+        Assertions.assertThat(report.invalid()).isEqualTo(1);
+        Assertions.assertThat(report.rows())
+            .extracting(UserImportRowDTO::row, UserImportRowDTO::status)
+            .containsExactly(
+                Assertions.tuple(1, UserImportRowDTO.Status.CREATED),
+                Assertions.tuple(2, UserImportRowDTO.Status.DUPLICATE),
+                Assertions.tuple(3, UserImportRowDTO.Status.INVALID),
+                Assertions.tuple(4, UserImportRowDTO.Status.CREATED),
+                Assertions.tuple(5, UserImportRowDTO.Status.DUPLICATE),
+                Assertions.tuple(6, UserImportRowDTO.Status.CREATED));
+        Assertions.assertThat(report.rows().get(2).message()).contains("email").contains("password");
+
+        entityManager.clear();
+        User imported = userRepository.findByEmail("a@example.com").orElseThrow();
+        Assertions.assertThat(passwordEncoder.matches("secret-a", imported.getPassword())).isTrue();
+        Assertions.assertThat(imported.getRoles()).extracting(Role::getName).containsExactly(Role.RoleName.DEFAULT);
+        Assertions.assertThat(imported.getCreatedAt()).isNotNull();
+        Assertions.assertThat(userRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should accept a JSON array and skip rows already imported")
+    void shouldAcceptJsonArrayAndSkipAlreadyImportedRows() {
+        String body = """
+            [{"email":"a@example.com","password":"secret-a","firstName":"Ana","lastName":"A"},
+             {"email":"b@example.com","password":"secret-b","firstName":"Bia","lastName":"B"}]
+            """;
+
+        Assertions.assertThat(userImportService.importUsers(stream(body)).created()).isEqualTo(2);
+        UserImportReportDTO second = userImportService.importUsers(stream(body));
+
+        Assertions.assertThat(second.created()).isZero();
+        Assertions.assertThat(second.duplicates()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should allocate ids that never collide with ids generated by Hibernate")
+    void shouldAllocateIdsThatNeverCollideWithHibernate() {
+        String body = """
+            {"email":"a@example.com","password":"secret-a","firstName":"Ana","lastName":"A"}
+            {"email":"b@example.com","password":"secret-b","firstName":"Bia","lastName":"B"}
+            {"email":"c@example.com","password":"secret-c","firstName":"Caio","lastName":"C"}
+            """;
+
+        userImportService.importUsers(stream(body));
+        User saved = userRepository.saveAndFlush(new User("after@example.com", "hash", "After", "Import"));
+
+        Assertions.assertThat(userRepository.findAll()).extracting(User::getId).doesNotHaveDuplicates().hasSize(5);
+        Assertions.assertThat(saved.getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should report null and non-object elements as invalid rows")
+    void shouldReportNullAndNonObjectElementsAsInvalidRows() {
+        String body = """
+            [null,
+             {"email":"a@example.com","password":"secret-a","firstName":"Ana","lastName":"A"},
+             "b@example.com",
+             42,
+             {"email":"c@example.com","password":{"nested":true},"firstName":"Caio","lastName":"C"}]
+            """;
+
+        UserImportReportDTO report = userImportService.importUsers(stream(body));
+
+        Assertions.assertThat(report.total()).isEqualTo(5);
+        Assertions.assertThat(report.created()).isEqualTo(1);
+        Assertions.assertThat(report.invalid()).isEqualTo(4);
+        Assertions.assertThat(report.rows())
+            .extracting(UserImportRowDTO::row, UserImportRowDTO::email, UserImportRowDTO::status)
+            .containsExactly(
+                Assertions.tuple(1, null, UserImportRowDTO.Status.INVALID),
+                Assertions.tuple(2, "a@example.com", UserImportRowDTO.Status.CREATED),
+                Assertions.tuple(3, null, UserImportRowDTO.Status.INVALID),
+                Assertions.tuple(4, null, UserImportRowDTO.Status.INVALID),
+                Assertions.tuple(5, "c@example.com", UserImportRowDTO.Status.INVALID));
+    }
+
+    @Test
+    @DisplayName("Should report emails longer than the column as invalid rows")
+    void shouldReportEmailsLongerThanTheColumnAsInvalidRows() {
+        String longEmail = "a@" + "x".repeat(60).concat(".").repeat(5) + "com";
+        String body = """
+            {"email":"%s","password":"secret-l","firstName":"Longo","lastName":"L"}
+            {"email":"b@example.com","password":"secret-b","firstName":"Bia","lastName":"B"}
+            """.formatted(longEmail);
+
+        UserImportReportDTO report = userImportService.importUsers(stream(body));
+
+        Assertions.assertThat(report.rows())
+            .extracting(UserImportRowDTO::row, UserImportRowDTO::status)
+            .containsExactly(
+                Assertions.tuple(1, UserImportRowDTO.Status.INVALID),
+                Assertions.tuple(2, UserImportRowDTO.Status.CREATED));
+        Assertions.assertThat(report.rows().get(0).message()).contains("email");
+    }
+
+    @Test
+    @DisplayName("Should reject malformed content")
+    void shouldRejectMalformedContent() {
+        Assertions.assertThatThrownBy(() -> userImportService.importUsers(stream("{\"email\": ")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,30 +2,44 @@ package com.auth.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import com.auth.dto.RoleDTO;
 import com.auth.dto.UserDTO;
+import com.auth.dto.UserPageDTO;
+import com.auth.entity.AuditEvent;
 import com.auth.entity.Role;
 import com.auth.entity.User;
 import com.auth.exception.RoleNotFoundException;
 import com.auth.exception.UserNotFoundException;
-import com.auth.repository.RoleRepository;
 import com.auth.repository.UserRepository;
+import com.auth.repository.projection.UserRoleRow;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("UserService - Unit Tests")
@@ -35,7 +49,22 @@ class UserServiceTest {
     UserRepository userRepository;
 
     @Mock
-    RoleRepository roleRepository;
+    RoleRegistry roleRegistry;
+
+    @Spy
+    UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+
+    @Mock
+    AuditLogService auditLogService;
+
+    @Spy
+    ReadYourWrites readYourWrites = new ReadYourWrites(false, Duration.ofSeconds(5), Duration.ofSeconds(5), 100);
+
+    @Mock
+    TokenRevocationService tokenRevocationService;
+
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     UserService userService;
@@ -75,6 +104,64 @@ class UserServiceTest {
         assertThat(userDetails.getAuthorities().iterator().next().getAuthority()).isEqualTo("ROLE_DEFAULT");
     }
 
+    @Test
+    @DisplayName("Should serve repeated loads by username from cache")
+    void shouldServeRepeatedLoadsByUsernameFromCache() {
+        when(userRepository.findByEmail(DEFAULT_EMAIL)).thenReturn(Optional.of(defaultUser));
+
+        UserDetails first = userService.loadUserByUsername(DEFAULT_EMAIL);
+        UserDetails second = userService.loadUserByUsername(DEFAULT_EMAIL);
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findByEmail(DEFAULT_EMAIL);
+    }
+
+    @Test
+    @DisplayName("Should load cache misses on the caller thread")
+    void shouldLoadCacheMissesOnCallerThread() {
+        List<Thread> loaderThreads = new ArrayList<>();
+        when(userRepository.findByEmail(DEFAULT_EMAIL)).thenAnswer(invocation -> {
+            loaderThreads.add(Thread.currentThread());
+            return Optional.of(defaultUser);
+        });
+
+        userService.loadUserByUsername(DEFAULT_EMAIL);
+
+        assertThat(loaderThreads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("Should evict cached user when roles are added")
+    void shouldEvictCachedUserWhenRolesAreAdded() {
+        when(userRepository.findByEmail(DEFAULT_EMAIL)).thenReturn(Optional.of(defaultUser));
+        when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
+        when(roleRegistry.findAll(Set.of(Role.RoleName.ADMIN))).thenReturn(Set.of(adminRole));
+        when(userRepository.save(defaultUser)).thenReturn(defaultUser);
+
+        userService.loadUserByUsername(DEFAULT_EMAIL);
+        userService.addRolesToUser(1L, Set.of(new RoleDTO("ADMIN")));
+        UserDetails reloaded = userService.loadUserByUsername(DEFAULT_EMAIL);
+
+        verify(userDetailsCache).evict(DEFAULT_EMAIL);
+        verify(readYourWrites).recordWrite(defaultUser);
+        verify(userRepository, times(2)).findByEmail(DEFAULT_EMAIL);
+        assertThat(reloaded.getAuthorities()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should persist rehashed password and evict cached user")
+    void shouldPersistRehashedPasswordAndEvictCachedUser() {
+        when(userRepository.findByEmail(DEFAULT_EMAIL)).thenReturn(Optional.of(defaultUser));
+        userService.loadUserByUsername(DEFAULT_EMAIL);
+
+        UserDetails updated = userService.updatePassword(defaultUser, "$2a$12$rehashed");
+
+        verify(userRepository).updatePassword(DEFAULT_EMAIL, "$2a$12$rehashed");
+        verify(userDetailsCache).evict(DEFAULT_EMAIL);
+        assertThat(updated.getPassword()).isEqualTo("$2a$12$rehashed");
+        assertThat(defaultUser.getSecurityVersion()).isZero();
+    }
+
     @Test
     @DisplayName("Should throw UsernameNotFoundException when loading user by non-existing username")
     void shouldThrowUsernameNotFoundExceptionWhenLoadUserByNonExistingUsername() {
@@ -89,11 +176,15 @@ class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Should return all users")
-    void shouldReturnAllUsers() {
-        when(userRepository.findAllWithRoles()).thenReturn(List.of(defaultUser, adminUser));
-
-        List<UserDTO> users = userService.getAllUsers();      
+    @DisplayName("Should return first page of users")
+    void shouldReturnFirstPageOfUsers() {
+        when(userRepository.findIdsAfter(0L, Limit.of(UserService.DEFAULT_PAGE_SIZE + 1))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findRoleRowsByIdIn(List.of(1L, 2L))).thenReturn(List.of(roleRow(defaultUser), roleRow(adminUser)));
+
+        UserPageDTO page = userService.getUsers(null, null);
+        List<UserDTO> users = page.users();
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.nextCursor()).isNull();
         assertThat(users).hasSize(2).isNotNull();
         assertThat(users.stream().map(UserDTO::email)).containsExactlyInAnyOrder(DEFAULT_EMAIL, ADMIN_EMAIL);
     assertThat(users.stream()
@@ -113,10 +204,42 @@ class UserServiceTest {
         
     }
 
+    @Test
+    @DisplayName("Should return next cursor pointing at last id of the page")
+    void shouldReturnNextCursorPointingAtLastIdOfPage() {
+        when(userRepository.findIdsAfter(0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findRoleRowsByIdIn(List.of(1L))).thenReturn(List.of(roleRow(defaultUser)));
+
+        UserPageDTO page = userService.getUsers(null, 1);
+
+        assertThat(page.users()).hasSize(1);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(UserService.decodeCursor(page.nextCursor())).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should seek after cursor and cap page size")
+    void shouldSeekAfterCursorAndCapPageSize() {
+        when(userRepository.findIdsAfter(42L, Limit.of(UserService.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+
+        UserPageDTO page = userService.getUsers(UserService.encodeCursor(42L), 10_000);
+
+        assertThat(page.users()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+        verify(userRepository, never()).findRoleRowsByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> userService.getUsers("não-é-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     @DisplayName("Should return user by ID when user exists")
     void shouldReturnUserByIdWhenUserExists() {
-        when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
+        when(userRepository.findRoleRowsById(1L)).thenReturn(List.of(roleRow(defaultUser)));
 
         UserDTO userDTO = userService.getUserById(1L);
 
@@ -127,11 +250,33 @@ class UserServiceTest {
         assertThat(userDTO.roles().iterator().next().name()).isEqualTo("DEFAULT");
     }
 
+    @Test
+    @DisplayName("Should fold one projection row per role into a single user")
+    void shouldFoldRoleRowsIntoSingleUser() {
+        when(userRepository.findRoleRowsById(1L)).thenReturn(List.of(
+            roleRow(defaultUser, Role.RoleName.DEFAULT), roleRow(defaultUser, Role.RoleName.ADMIN)));
+
+        UserDTO userDTO = userService.getUserById(1L);
+
+        assertThat(userDTO.roles()).extracting(RoleDTO::name).containsExactlyInAnyOrder("DEFAULT", "ADMIN");
+    }
+
+    @Test
+    @DisplayName("Should return user without roles when projection row has no role")
+    void shouldReturnUserWithoutRolesWhenRowHasNoRole() {
+        when(userRepository.findRoleRowsById(1L)).thenReturn(List.of(roleRow(defaultUser, null)));
+
+        UserDTO userDTO = userService.getUserById(1L);
+
+        assertThat(userDTO.id()).isEqualTo(1L);
+        assertThat(userDTO.roles()).isEmpty();
+    }
+
     @Test
     @DisplayName("Should throw UserNotFoundException when getting user by non-existing ID")
     void shouldThrowUserNotFoundExceptionWhenGettingUserByNonExistingId() {
         Long nonExistingId = 99L;
-        when(userRepository.findByIdWithRoles(nonExistingId)).thenReturn(Optional.empty());
+        when(userRepository.findRoleRowsById(nonExistingId)).thenReturn(List.of());
 
         assertThatThrownBy(() -> userService.getUserById(nonExistingId))
             .isInstanceOf(UserNotFoundException.class)
@@ -141,7 +286,7 @@ class UserServiceTest {
     @Test
     @DisplayName("Should return user by email when user exists")
     void shouldReturnUserByEmailWhenUserExists() {
-        when(userRepository.findByEmail(DEFAULT_EMAIL)).thenReturn(Optional.of(defaultUser));
+        when(userRepository.findRoleRowsByEmail(DEFAULT_EMAIL)).thenReturn(List.of(roleRow(defaultUser)));
 
         UserDTO userDTO = userService.getUserByEmail(DEFAULT_EMAIL);
 
@@ -155,7 +300,7 @@ class UserServiceTest {
     @DisplayName("Should throw UserNotFoundException when getting user by non-existing email")
     void shouldThrowUserNotFoundExceptionWhenGettingUserByNonExistingEmail() {
         String nonExistingEmail = "nonexistent@example.com";
-        when(userRepository.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
+        when(userRepository.findRoleRowsByEmail(nonExistingEmail)).thenReturn(List.of());
 
         assertThatThrownBy(() -> userService.getUserByEmail(nonExistingEmail))
             .isInstanceOf(UserNotFoundException.class)
@@ -166,7 +311,7 @@ class UserServiceTest {
     @DisplayName("Should add roles to user successfully")
     void shouldAddRolesToUserSuccessfully() {
         when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
-        when(roleRepository.findByNameIn(Set.of(Role.RoleName.ADMIN))).thenReturn(Optional.of(Set.of(adminRole)));
+        when(roleRegistry.findAll(Set.of(Role.RoleName.ADMIN))).thenReturn(Set.of(adminRole));
         when(userRepository.save(defaultUser)).thenReturn(defaultUser);
         
         UserDTO updatedUserDTO = userService.addRolesToUser(1L, Set.of(new RoleDTO("ADMIN")));
@@ -177,6 +322,8 @@ class UserServiceTest {
         assertThat(updatedUserDTO.roles())
             .extracting(RoleDTO::name)
             .containsExactlyInAnyOrder("DEFAULT", "ADMIN");
+        verify(auditLogService).record(argThat(event -> event.getType() == AuditEvent.Type.ROLES_ADDED
+                && event.getUserId().equals(1L) && "ADMIN".equals(event.getDetail())));
     }
 
     @Test
@@ -195,7 +342,7 @@ class UserServiceTest {
     @DisplayName("Should throw RoleNotFoundException when adding non-existing roles to user")
     void shouldThrowRoleNotFoundExceptionWhenAddingNonExistingRolesToUser() {
         when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
-        when(roleRepository.findByNameIn(Set.of(Role.RoleName.ADMIN))).thenReturn(Optional.empty());
+        when(roleRegistry.findAll(Set.of(Role.RoleName.ADMIN))).thenReturn(Set.of());
 
         Set<RoleDTO> rolesToAdd = Set.of(new RoleDTO("ADMIN"));
         assertThatThrownBy(() -> userService.addRolesToUser(1L, rolesToAdd))
@@ -207,7 +354,7 @@ class UserServiceTest {
     @DisplayName("Should throw IllegalArgumentException when adding already assigned role to user")
     void shouldThrowIllegalArgumentExceptionWhenAddingAlreadyAssignedRoleToUser() {
         when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
-        when(roleRepository.findByNameIn(Set.of(Role.RoleName.DEFAULT))).thenReturn(Optional.of(Set.of(defaultRole)));
+        when(roleRegistry.findAll(Set.of(Role.RoleName.DEFAULT))).thenReturn(Set.of(defaultRole));
 
         Set<RoleDTO> rolesToAdd = Set.of(new RoleDTO("DEFAULT"));
         assertThatThrownBy(() -> userService.addRolesToUser(1L, rolesToAdd))
@@ -224,7 +371,7 @@ class UserServiceTest {
         userWithBothRoles.addRole(adminRole);
 
         when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(userWithBothRoles));
-        when(roleRepository.findByNameIn(Set.of(Role.RoleName.ADMIN))).thenReturn(Optional.of(Set.of(adminRole)));
+        when(roleRegistry.findAll(Set.of(Role.RoleName.ADMIN))).thenReturn(Set.of(adminRole));
         when(userRepository.save(userWithBothRoles)).thenReturn(userWithBothRoles);
         
         UserDTO updatedUserDTO = userService.removeRolesFromUser(1L, Set.of(new RoleDTO("ADMIN")));
@@ -233,6 +380,8 @@ class UserServiceTest {
         assertThat(updatedUserDTO.id()).isEqualTo(1L);
         assertThat(updatedUserDTO.roles()).hasSize(1);
         assertThat(updatedUserDTO.roles().iterator().next().name()).isEqualTo("DEFAULT");
+        verify(auditLogService).record(argThat(event -> event.getType() == AuditEvent.Type.ROLES_REMOVED));
+        verify(tokenRevocationService).onRolesChanged(userWithBothRoles);
     }
 
     @Test
@@ -251,7 +400,7 @@ class UserServiceTest {
     @DisplayName("Should throw RoleNotFoundException when removing non-existing roles from user")
     void shouldThrowRoleNotFoundExceptionWhenRemovingNonExistingRolesFromUser() {
         when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
-        when(roleRepository.findByNameIn(Set.of(Role.RoleName.ADMIN))).thenReturn(Optional.empty());
+        when(roleRegistry.findAll(Set.of(Role.RoleName.ADMIN))).thenReturn(Set.of());
 
         Set<RoleDTO> rolesToRemove = Set.of(new RoleDTO("ADMIN"));
         assertThatThrownBy(() -> userService.removeRolesFromUser(1L, rolesToRemove))
@@ -263,7 +412,7 @@ class UserServiceTest {
     @DisplayName("Should throw IllegalArgumentException when removing unassigned role from user")
     void shouldThrowIllegalArgumentExceptionWhenRemovingUnassignedRoleFromUser() {
         when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
-        when(roleRepository.findByNameIn(Set.of(Role.RoleName.ADMIN))).thenReturn(Optional.of(Set.of(adminRole)));
+        when(roleRegistry.findAll(Set.of(Role.RoleName.ADMIN))).thenReturn(Set.of(adminRole));
 
         Set<RoleDTO> rolesToRemove = Set.of(new RoleDTO("ADMIN"));
         assertThatThrownBy(() -> userService.removeRolesFromUser(1L, rolesToRemove))
@@ -275,7 +424,7 @@ class UserServiceTest {
     @DisplayName("Should throw RoleNotFoundException when removing all roles leaving user with none")
     void shouldThrowRoleNotFoundExceptionWhenRemovingAllRolesLeavingUserWithNone() {    
         when(userRepository.findByIdWithRoles(1L)).thenReturn(Optional.of(defaultUser));
-        when(roleRepository.findByNameIn(Set.of(Role.RoleName.DEFAULT))).thenReturn(Optional.of(Set.of(defaultRole)));
+        when(roleRegistry.findAll(Set.of(Role.RoleName.DEFAULT))).thenReturn(Set.of(defaultRole));
 
         Set<RoleDTO> rolesToRemove = Set.of(new RoleDTO("DEFAULT"));
         assertThatThrownBy(() -> userService.removeRolesFromUser(1L, rolesToRemove))
@@ -283,4 +432,12 @@ class UserServiceTest {
             .hasMessage("O usuário deve permanecer com pelo menos uma role");
     }
 
-}
\ No newline at end of file
+    private static UserRoleRow roleRow(User user) {
+        return roleRow(user, user.getRoles().iterator().next().getName());
+    }
+
+    private static UserRoleRow roleRow(User user, Role.RoleName role) {
+        return new UserRoleRow(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+            user.getCreatedAt(), user.getUpdatedAt(), role);
+    }
+}